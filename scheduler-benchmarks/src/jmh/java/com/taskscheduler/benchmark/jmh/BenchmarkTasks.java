@@ -0,0 +1,50 @@
+package com.taskscheduler.benchmark.jmh;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.scheduling.PriorityLaneQueue;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+final class BenchmarkTasks {
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+
+    private BenchmarkTasks() {
+    }
+
+    static Task task(long id, Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        return Task.builder()
+            .id(id)
+            .name("task-" + id)
+            .description("Benchmark task " + id)
+            .priority(PRIORITIES[random.nextInt(PRIORITIES.length)])
+            .status(Task.TaskStatus.RUNNING)
+            .scheduledTime(now.minusSeconds(random.nextInt(3600)))
+            .createdAt(now)
+            .updatedAt(now)
+            .ownerId("benchmark")
+            .build();
+    }
+
+    // Same defaults as application.properties
+    static PriorityLaneQueue laneQueue() {
+        PriorityLaneQueue queue = new PriorityLaneQueue();
+        inject(queue, "laneWeights", "LOW:1,MEDIUM:2,HIGH:4,CRITICAL:8");
+        inject(queue, "agingMs", 30000L);
+        queue.init();
+        return queue;
+    }
+
+    // Stands in for the @Value injection Spring would do
+    private static void inject(Object target, String field, Object value) {
+        try {
+            Field declared = target.getClass().getDeclaredField(field);
+            declared.setAccessible(true);
+            declared.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + field, e);
+        }
+    }
+}
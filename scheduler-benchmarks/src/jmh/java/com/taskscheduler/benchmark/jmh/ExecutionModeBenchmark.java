@@ -0,0 +1,111 @@
+package com.taskscheduler.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the platform {@code taskExecutor} pool with virtual-thread execution for
+ * I/O-bound task runs shaped like {@code TaskService.processTask}: one operation submits
+ * a batch of runs and waits for all of them. The virtual mode needs a Java 21 runtime and
+ * fails its setup on older ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutionModeBenchmark {
+    @Param({"platform", "virtual"})
+    private String mode;
+
+    @Param({"200"})
+    private int tasks;
+
+    @Param({"5"})
+    private int steps;
+
+    @Param({"10"})
+    private long stepMillis;
+
+    // Concurrency limit for virtual threads, standing in for downstream connection limits
+    @Param({"200"})
+    private int maxConcurrency;
+
+    private ThreadPoolTaskExecutor pool;
+    private Executor executor;
+    private Semaphore permits;
+
+    @Setup(Level.Trial)
+    public void start() {
+        if (mode.equals("platform")) {
+            // Same shape as the application's taskExecutor
+            pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(5);
+            pool.setMaxPoolSize(10);
+            pool.setQueueCapacity(Integer.MAX_VALUE);
+            pool.setThreadNamePrefix("Bench-");
+            pool.initialize();
+            executor = pool;
+            return;
+        }
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads require a Java 21 runtime");
+        }
+        executor = new VirtualThreadTaskExecutor("Bench-");
+        permits = new Semaphore(maxConcurrency);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void runBatch() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                try {
+                    if (permits != null) {
+                        permits.acquire();
+                    }
+                    try {
+                        for (int step = 0; step < steps; step++) {
+                            Thread.sleep(stepMillis);
+                        }
+                    } finally {
+                        if (permits != null) {
+                            permits.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await(1, TimeUnit.HOURS);
+    }
+}
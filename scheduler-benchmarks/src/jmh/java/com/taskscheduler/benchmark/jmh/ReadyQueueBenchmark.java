@@ -0,0 +1,91 @@
+package com.taskscheduler.benchmark.jmh;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.scheduling.PriorityLaneQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offer/poll churn at a steady queue depth, as in {@code SchedulerService.processPendingTasks}:
+ * the weighted {@link PriorityLaneQueue} against the single {@link PriorityBlockingQueue}
+ * (priority, then scheduled time) it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadyQueueBenchmark {
+    private static final Comparator<Task> PRIORITY_ORDER = Comparator
+        .comparing(Task::getPriority, Comparator.reverseOrder())
+        .thenComparing(Task::getScheduledTime);
+
+    @Param({"100", "10000", "100000"})
+    private int queueSize;
+
+    private PriorityLaneQueue laneQueue;
+    private PriorityBlockingQueue<Task> priorityQueue;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        Random random = new Random(42);
+        laneQueue = BenchmarkTasks.laneQueue();
+        priorityQueue = new PriorityBlockingQueue<>(queueSize, PRIORITY_ORDER);
+        for (long id = 1; id <= queueSize; id++) {
+            Task task = BenchmarkTasks.task(id, random);
+            laneQueue.offer(task);
+            priorityQueue.offer(task);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Task laneQueue() {
+        return churn(laneQueue);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Task laneQueueContended() {
+        return churn(laneQueue);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Task priorityBlockingQueue() {
+        Task task = priorityQueue.poll();
+        priorityQueue.offer(task);
+        return task;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Task priorityBlockingQueueContended() {
+        Task task = priorityQueue.poll();
+        priorityQueue.offer(task);
+        return task;
+    }
+
+    private static Task churn(PriorityLaneQueue queue) {
+        Task task = queue.poll();
+        queue.offer(task);
+        return task;
+    }
+}
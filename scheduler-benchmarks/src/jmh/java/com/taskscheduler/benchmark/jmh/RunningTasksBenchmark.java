@@ -0,0 +1,75 @@
+package com.taskscheduler.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TaskService.runningTasks} traffic: each run registers its thread on start and
+ * removes it on finish, while pause and cancel look threads up by task id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunningTasksBenchmark {
+    @Param({"10", "200", "10000"})
+    private int runningTasks;
+
+    private ConcurrentHashMap<Long, Thread> running;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        running = new ConcurrentHashMap<>();
+        for (long id = 0; id < runningTasks; id++) {
+            running.put(id, Thread.currentThread());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Thread startFinish() {
+        return cycle();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Thread startFinish4Threads() {
+        return cycle();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Thread startFinish16Threads() {
+        return cycle();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Thread lookup4Threads() {
+        return running.get(ThreadLocalRandom.current().nextLong(runningTasks));
+    }
+
+    // Ids above the pre-filled range so concurrent threads rarely collide, as distinct runs never do
+    private Thread cycle() {
+        long id = runningTasks + ThreadLocalRandom.current().nextLong(1_000_000);
+        running.put(id, Thread.currentThread());
+        return running.remove(id);
+    }
+}
@@ -0,0 +1,76 @@
+package com.taskscheduler.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskscheduler.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the payloads {@code WebSocketService} publishes: a batched list of task
+ * updates on /topic/tasks and a progress map per task topic. Configured like Spring Boot's
+ * default {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskPayloadBenchmark {
+    @Param({"1", "50", "500"})
+    private int batchSize;
+
+    private ObjectMapper objectMapper;
+    private List<Task> batch;
+    private Map<String, Object> progress;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Random random = new Random(42);
+        batch = new ArrayList<>(batchSize);
+        for (long id = 1; id <= batchSize; id++) {
+            batch.add(BenchmarkTasks.task(id, random));
+        }
+        progress = Map.of("taskId", 1L, "progress", 50);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] taskUpdateBatch() throws Exception {
+        return objectMapper.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] taskUpdateBatch4Threads() throws Exception {
+        return objectMapper.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] progressUpdate() throws Exception {
+        return objectMapper.writeValueAsBytes(progress);
+    }
+}
@@ -0,0 +1,99 @@
+package com.taskscheduler.benchmark.load;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.TaskRepositoryImpl;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures task ingestion against a migrated PostgreSQL database: one INSERT round trip
+ * per task (the old per-request path) versus {@link TaskRepositoryImpl#insertAll} with
+ * pooled sequence ids and JDBC batches. Inserted rows are deleted afterwards.
+ *
+ * Usage: {@code BulkIngestBenchmark [tasks]} against an embedded PostgreSQL migrated with
+ * Flyway, or {@code BulkIngestBenchmark <jdbcUrl> <user> <password> [tasks]} against an
+ * existing database; add {@code reWriteBatchedInserts=true} to the URL as the application does.
+ * Run with: {@code mvn -Pload-test test-compile exec:exec -Dload.main=com.taskscheduler.benchmark.load.BulkIngestBenchmark}
+ */
+public class BulkIngestBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 3) {
+            run(new DriverManagerDataSource(args[0], args[1], args[2]), args.length > 3 ? Integer.parseInt(args[3]) : 10_000);
+            return;
+        }
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            DataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true", "postgres", "");
+            Flyway.configure().dataSource(dataSource).load().migrate();
+            run(dataSource, args.length > 0 ? Integer.parseInt(args[0]) : 10_000);
+        }
+    }
+
+    private static void run(DataSource dataSource, int count) {
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        TaskRepositoryImpl repository = new TaskRepositoryImpl(jdbcTemplate);
+
+        // Warm up connections and JIT on both paths
+        cleanup(jdbcTemplate, insertOneByOne(jdbcTemplate, newTasks(500)));
+        cleanup(jdbcTemplate, repository.insertAll(newTasks(500)));
+
+        long start = System.nanoTime();
+        List<Long> singleIds = insertOneByOne(jdbcTemplate, newTasks(count));
+        double singleRate = count / ((System.nanoTime() - start) / 1e9);
+        cleanup(jdbcTemplate, singleIds);
+
+        start = System.nanoTime();
+        List<Long> batchIds = repository.insertAll(newTasks(count));
+        double batchRate = count / ((System.nanoTime() - start) / 1e9);
+        cleanup(jdbcTemplate, batchIds);
+
+        System.out.printf("single-row inserts: %.0f tasks/s%n", singleRate);
+        System.out.printf("batched inserts:    %.0f tasks/s (%.1fx)%n", batchRate, batchRate / singleRate);
+    }
+
+    private static List<Long> insertOneByOne(NamedParameterJdbcTemplate jdbcTemplate, List<Task> tasks) {
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            ids.add(jdbcTemplate.queryForObject(
+                "INSERT INTO tasks (name, priority, status, scheduled_time, created_at, updated_at) " +
+                "VALUES (:name, :priority, :status, :scheduledTime, now(), now()) RETURNING id",
+                new MapSqlParameterSource()
+                    .addValue("name", task.getName())
+                    .addValue("priority", task.getPriority().name())
+                    .addValue("status", task.getStatus().name())
+                    .addValue("scheduledTime", task.getScheduledTime()),
+                Long.class));
+        }
+        return ids;
+    }
+
+    private static List<Task> newTasks(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.builder()
+                .name("bench-" + i)
+                .priority(Task.TaskPriority.values()[i % Task.TaskPriority.values().length])
+                .status(Task.TaskStatus.PENDING)
+                .scheduledTime(now.plusDays(1))
+                .build());
+        }
+        return tasks;
+    }
+
+    private static void cleanup(NamedParameterJdbcTemplate jdbcTemplate, List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += 1000) {
+            jdbcTemplate.update("DELETE FROM tasks WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids.subList(from, Math.min(from + 1000, ids.size()))));
+        }
+    }
+}
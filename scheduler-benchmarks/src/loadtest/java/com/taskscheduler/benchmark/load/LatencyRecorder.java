@@ -0,0 +1,45 @@
+package com.taskscheduler.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * Collects every latency of a stage (in nanoseconds) and reports exact percentiles; a stage
+ * holds at most rate x duration samples, so keeping them all is cheaper than bucketing.
+ */
+class LatencyRecorder {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+    private static final String[] LABELS = {"p50", "p90", "p99", "p99.9", "max"};
+
+    private long[] values = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count * 2);
+        }
+        values[count++] = nanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    // Nearest-rank percentile in milliseconds, 0 when nothing was recorded
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(values, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    String summary() {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            line.append(String.format("%s=%.1f ", LABELS[i], percentileMillis(PERCENTILES[i])));
+        }
+        return line.append("ms (n=").append(count()).append(')').toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskscheduler.benchmark.load;
+
+import com.taskscheduler.model.Task;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Harness settings, read from {@code --load.*=} arguments. Every other argument is passed to
+ * the application unchanged, so e.g. {@code --thread.pool.max-size=50} tunes the service.
+ */
+record LoadOptions(
+    int[] rates,
+    int stageSeconds,
+    int warmupSeconds,
+    Task.TaskPriority[] priorityMix,
+    Dependencies dependencies,
+    int senders,
+    int drainSeconds,
+    long sloMillis
+) {
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--load.") && arg.contains("=")) {
+                values.put(arg.substring(7, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return new LoadOptions(
+            Arrays.stream(values.getOrDefault("rates", "10,20,40,80,160").split(","))
+                .mapToInt(rate -> Integer.parseInt(rate.trim()))
+                .toArray(),
+            Integer.parseInt(values.getOrDefault("stage-seconds", "30")),
+            Integer.parseInt(values.getOrDefault("warmup-seconds", "10")),
+            parseMix(values.getOrDefault("priority-mix", "LOW:4,MEDIUM:3,HIGH:2,CRITICAL:1")),
+            Dependencies.parse(values.getOrDefault("dependencies", "none")),
+            Integer.parseInt(values.getOrDefault("senders", "32")),
+            Integer.parseInt(values.getOrDefault("drain-seconds", "120")),
+            Long.parseLong(values.getOrDefault("slo-ms", "1000"))
+        );
+    }
+
+    Task.TaskPriority nextPriority() {
+        return priorityMix[ThreadLocalRandom.current().nextInt(priorityMix.length)];
+    }
+
+    // Same PRIORITY:weight format as scheduler.lanes.weights, expanded to a table to draw from
+    private static Task.TaskPriority[] parseMix(String spec) {
+        Map<Task.TaskPriority, Integer> weights = new EnumMap<>(Task.TaskPriority.class);
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Task.TaskPriority.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights.entrySet().stream()
+            .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+            .toArray(Task.TaskPriority[]::new);
+    }
+
+    /**
+     * Dependency shape of submitted tasks: {@code none}, {@code chain:N} (runs of N tasks,
+     * each depending on the previous one) or {@code fanout:N} (one parent followed by N
+     * children that all depend on it).
+     */
+    record Dependencies(String shape, int size) {
+        static Dependencies parse(String spec) {
+            String[] parts = spec.trim().split(":");
+            Dependencies dependencies = new Dependencies(parts[0].toLowerCase(), parts.length > 1 ? Integer.parseInt(parts[1]) : 1);
+            if (!dependencies.shape.equals("none") && !dependencies.shape.equals("chain") && !dependencies.shape.equals("fanout")) {
+                throw new IllegalArgumentException("Unknown dependency shape: " + spec);
+            }
+            return dependencies;
+        }
+
+        // Index of the task the given one depends on within its stage, or -1
+        int parentOf(int index) {
+            return switch (shape) {
+                case "chain" -> index % size == 0 ? -1 : index - 1;
+                case "fanout" -> index % (size + 1) == 0 ? -1 : index - index % (size + 1);
+                default -> -1;
+            };
+        }
+
+        @Override
+        public String toString() {
+            return shape.equals("none") ? shape : shape + ":" + size;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.taskscheduler.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskscheduler.TaskSchedulerApplication;
+import com.taskscheduler.model.Task;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * End-to-end load test: boots the scheduler against an embedded PostgreSQL (schema from the
+ * Flyway migrations), submits tasks to {@code POST /api/tasks} at fixed open-loop rates, one
+ * stage per rate, and reports submit-to-start and submit-to-complete latency per stage.
+ *
+ * Latencies are measured from each task's intended send time, not from when a sender got
+ * to it, so a stalled service is charged for every request it delayed (coordinated omission
+ * correction); the uncorrected submit-to-start is printed alongside for comparison. The
+ * saturation point is the highest rate whose stage had no rejections and a corrected p99
+ * submit-to-start within {@code --load.slo-ms}. The ramp stops at the first stage over it.
+ *
+ * Usage: {@code LoadTestHarness [--load.rates=10,20,40] [--load.stage-seconds=30]
+ * [--load.priority-mix=LOW:4,MEDIUM:3,HIGH:2,CRITICAL:1] [--load.dependencies=none|chain:N|fanout:N]
+ * [--load.senders=32] [--load.drain-seconds=120] [--load.slo-ms=1000] [--load.warmup-seconds=10]
+ * [--any.application.property=value]}
+ */
+public class LoadTestHarness {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            applicationDefaults(postgres).forEach((key, value) -> {
+                if (System.getProperty(key) == null) {
+                    System.setProperty(key, value);
+                }
+            });
+            TaskProbe probe = new TaskProbe();
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskSchedulerApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory().registerSingleton("taskProbe", probe))
+                .run(args);
+            ExecutorService senders = Executors.newFixedThreadPool(options.senders());
+            try {
+                URI endpoint = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/tasks");
+                HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                Stage stage = new Stage(options, client, endpoint, probe, senders);
+
+                System.out.printf("load test: rates=%s/s, %ds per stage, dependencies=%s, step=%sms, executor max=%s%n",
+                    Arrays.toString(options.rates()), options.stageSeconds(), options.dependencies(),
+                    context.getEnvironment().getProperty("task.execution.simulated-step-ms"),
+                    context.getEnvironment().getProperty("thread.pool.max-size"));
+                if (options.warmupSeconds() > 0) {
+                    stage.run(options.rates()[0], options.warmupSeconds());
+                }
+
+                Integer saturation = null;
+                StageResult overloaded = null;
+                for (int rate : options.rates()) {
+                    StageResult result = stage.run(rate, options.stageSeconds());
+                    result.print();
+                    if (!result.sustained(options.sloMillis())) {
+                        overloaded = result;
+                        break;
+                    }
+                    saturation = rate;
+                }
+
+                if (overloaded == null) {
+                    System.out.printf("%nsaturation point: not reached, sustained %d tasks/s%n", saturation);
+                } else {
+                    System.out.printf("%nsaturation point: %s (overloaded at %d tasks/s: %s)%n",
+                        saturation == null ? "below the first stage" : saturation + " tasks/s",
+                        overloaded.rate, overloaded.reason(options.sloMillis()));
+                }
+            } finally {
+                senders.shutdownNow();
+                context.close();
+            }
+        }
+    }
+
+    private static Map<String, String> applicationDefaults(EmbeddedPostgres postgres) throws Exception {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        defaults.put("spring.datasource.username", "postgres");
+        defaults.put("spring.datasource.password", "");
+        defaults.put("server.port", "0");
+        defaults.put("eureka.client.enabled", "false");
+        defaults.put("spring.jpa.show-sql", "false");
+        defaults.put("logging.level.com.taskscheduler", "WARN");
+        defaults.put("logging.level.org.springframework.web", "WARN");
+        defaults.put("logging.level.org.springframework.security", "WARN");
+        defaults.put("logging.level.org.hibernate.SQL", "WARN");
+        defaults.put("archive.directory", Files.createTempDirectory("loadtest-archive").toString());
+        // 10 steps of 10ms: short enough that the scheduler, not the simulated work, is measured
+        defaults.put("task.execution.simulated-step-ms", "10");
+        return defaults;
+    }
+
+    private enum Outcome { ACCEPTED, REJECTED, ERROR }
+
+    private record Submission(long intendedNanos, long sentNanos, Task.TaskPriority priority, Outcome outcome, Long taskId) {
+    }
+
+    private record Stage(LoadOptions options, HttpClient client, URI endpoint, TaskProbe probe, ExecutorService senders) {
+
+        StageResult run(int rate, int seconds) {
+            int total = rate * seconds;
+            List<CompletableFuture<Submission>> submissions = new ArrayList<>(total);
+            long stageStart = System.nanoTime() + 10_000_000;
+            for (int i = 0; i < total; i++) {
+                long intended = stageStart + (long) (i * 1e9 / rate);
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int parent = options.dependencies().parentOf(i);
+                CompletableFuture<Submission> parentSubmission = parent >= 0 ? submissions.get(parent) : null;
+                Task.TaskPriority priority = options.nextPriority();
+                submissions.add(CompletableFuture.supplyAsync(() -> submit(intended, priority, parentSubmission), senders));
+            }
+            List<Submission> sent = submissions.stream().map(CompletableFuture::join).toList();
+            return drain(rate, stageStart, sent);
+        }
+
+        private Submission submit(long intended, Task.TaskPriority priority, CompletableFuture<Submission> parent) {
+            Long parentId = parent != null ? parent.join().taskId() : null;
+            long sentAt = System.nanoTime();
+            if (parent != null && parentId == null) {
+                return new Submission(intended, sentAt, priority, Outcome.REJECTED, null);
+            }
+            try {
+                Map<String, Object> task = new LinkedHashMap<>();
+                task.put("name", "load-" + intended);
+                task.put("priority", priority.name());
+                if (parentId != null) {
+                    task.put("dependentTask", Map.of("id", parentId));
+                }
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(endpoint)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(task)))
+                        .build(),
+                    HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    Long taskId = MAPPER.readTree(response.body()).get("id").asLong();
+                    return new Submission(intended, sentAt, priority, Outcome.ACCEPTED, taskId);
+                }
+                return new Submission(intended, sentAt, priority,
+                    response.statusCode() == 429 ? Outcome.REJECTED : Outcome.ERROR, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Submission(intended, sentAt, priority, Outcome.ERROR, null);
+            } catch (Exception e) {
+                return new Submission(intended, sentAt, priority, Outcome.ERROR, null);
+            }
+        }
+
+        // Waits for every accepted task to finish; unfinished ones are charged up to the deadline
+        private StageResult drain(int rate, long stageStart, List<Submission> submissions) {
+            long deadline = System.nanoTime() + options.drainSeconds() * 1_000_000_000L;
+            List<Submission> accepted = submissions.stream().filter(s -> s.outcome() == Outcome.ACCEPTED).toList();
+            while (System.nanoTime() < deadline && accepted.stream().anyMatch(s -> probe.finishedAt(s.taskId()) == null)) {
+                LockSupport.parkNanos(50_000_000);
+            }
+            long cutoff = Math.min(deadline, System.nanoTime());
+
+            StageResult result = new StageResult(rate, submissions.size());
+            long lastFinish = stageStart;
+            for (Submission submission : submissions) {
+                if (submission.outcome() == Outcome.REJECTED) {
+                    result.rejected++;
+                    continue;
+                } else if (submission.outcome() == Outcome.ERROR) {
+                    result.errors++;
+                    continue;
+                }
+                Long startedAt = probe.startedAt(submission.taskId());
+                Long finishedAt = probe.finishedAt(submission.taskId());
+                long start = startedAt != null ? startedAt : cutoff;
+                result.startCorrected.record(start - submission.intendedNanos());
+                result.startUncorrected.record(start - submission.sentNanos());
+                result.startByPriority.computeIfAbsent(submission.priority(), priority -> new LatencyRecorder())
+                    .record(start - submission.intendedNanos());
+                if (finishedAt == null) {
+                    result.incomplete++;
+                    result.complete.record(cutoff - submission.intendedNanos());
+                    continue;
+                }
+                result.complete.record(finishedAt - submission.intendedNanos());
+                lastFinish = Math.max(lastFinish, finishedAt);
+                if (probe.hasFailed(submission.taskId())) {
+                    result.failed++;
+                } else {
+                    result.completed++;
+                }
+            }
+            result.throughput = lastFinish > stageStart ? (result.completed + result.failed) / ((lastFinish - stageStart) / 1e9) : 0;
+            return result;
+        }
+    }
+
+    private static class StageResult {
+        final int rate;
+        final int submitted;
+        int rejected;
+        int errors;
+        int completed;
+        int failed;
+        int incomplete;
+        double throughput;
+        final LatencyRecorder startCorrected = new LatencyRecorder();
+        final LatencyRecorder startUncorrected = new LatencyRecorder();
+        final LatencyRecorder complete = new LatencyRecorder();
+        final Map<Task.TaskPriority, LatencyRecorder> startByPriority = new EnumMap<>(Task.TaskPriority.class);
+
+        StageResult(int rate, int submitted) {
+            this.rate = rate;
+            this.submitted = submitted;
+        }
+
+        boolean sustained(long sloMillis) {
+            return reason(sloMillis) == null;
+        }
+
+        String reason(long sloMillis) {
+            if (rejected > 0 || errors > 0) {
+                return rejected + " rejected, " + errors + " errors";
+            }
+            if (incomplete > 0) {
+                return incomplete + " tasks unfinished after the drain timeout";
+            }
+            double p99 = startCorrected.percentileMillis(99);
+            return p99 > sloMillis ? String.format("p99 submit->start %.0fms > %dms", p99, sloMillis) : null;
+        }
+
+        void print() {
+            System.out.printf("%nstage %d tasks/s: submitted %d, rejected %d, errors %d, completed %d, failed %d, unfinished %d, throughput %.1f tasks/s%n",
+                rate, submitted, rejected, errors, completed, failed, incomplete, throughput);
+            System.out.println("  submit->start    (corrected)   " + startCorrected.summary());
+            System.out.println("  submit->start    (uncorrected) " + startUncorrected.summary());
+            System.out.println("  submit->complete (corrected)   " + complete.summary());
+            startByPriority.forEach((priority, recorder) -> System.out.printf("  submit->start %-8s p50=%.1f p99=%.1fms%n",
+                priority, recorder.percentileMillis(50), recorder.percentileMillis(99)));
+        }
+    }
+}
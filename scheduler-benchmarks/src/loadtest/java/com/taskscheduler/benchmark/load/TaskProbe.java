@@ -0,0 +1,50 @@
+package com.taskscheduler.benchmark.load;
+
+import com.taskscheduler.events.TaskEvent;
+import com.taskscheduler.events.TaskEventSubscriber;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Timestamps task runs in-process from the scheduler's own {@link TaskEvent}s: a run starts
+ * at its transition to RUNNING (executor slot acquired) and ends at its transition to
+ * COMPLETED or FAILED. Times are the events' {@code raisedAt}, not their delivery, since
+ * worker transitions are only delivered once the state journal has written them.
+ */
+class TaskProbe implements TaskEventSubscriber {
+    private final Map<Long, Long> started = new ConcurrentHashMap<>();
+    private final Map<Long, Long> finished = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> failed = new ConcurrentHashMap<>();
+
+    @Override
+    public void onEvents(List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            if (event.type() != TaskEvent.Type.STATUS_CHANGED) {
+                continue;
+            }
+            switch (event.status()) {
+                case RUNNING -> started.put(event.taskId(), event.raisedAt());
+                case COMPLETED -> finished.put(event.taskId(), event.raisedAt());
+                case FAILED -> {
+                    failed.put(event.taskId(), true);
+                    finished.put(event.taskId(), event.raisedAt());
+                }
+                default -> { }
+            }
+        }
+    }
+
+    Long startedAt(Long taskId) {
+        return started.get(taskId);
+    }
+
+    Long finishedAt(Long taskId) {
+        return finished.get(taskId);
+    }
+
+    boolean hasFailed(Long taskId) {
+        return failed.containsKey(taskId);
+    }
+}
@@ -0,0 +1,212 @@
+package com.taskscheduler.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only archive of terminal tasks on local disk. Each append becomes one gzip member
+ * of NDJSON appended to the current segment file, which rolls over at a size limit. A
+ * companion {@code .idx} file records each member's offset and id/time ranges; the whole
+ * index is held in memory so lookups decompress only the members that can match.
+ *
+ * The segment is forced to disk before its index entry is written, so a crash leaves at
+ * most an unindexed tail that is never read.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchiveSegmentStore {
+    private static final Pattern SEGMENT_NAME = Pattern.compile("tasks-(\\d{6})\\.idx");
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${archive.directory:archive}")
+    private String archiveDirectory;
+
+    @Value("${archive.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    private final List<SegmentBlock> blocks = new CopyOnWriteArrayList<>();
+    private Path directory;
+    private int currentSegment = 1;
+
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        directory = Path.of(archiveDirectory);
+        Files.createDirectories(directory);
+        List<Integer> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        segments.sort(Comparator.naturalOrder());
+        for (int segment : segments) {
+            byte[] index = Files.readAllBytes(indexFile(segment));
+            // Ignore a torn trailing entry left by a crash mid-write
+            int entries = index.length / SegmentBlock.BYTES;
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(index));
+            for (int i = 0; i < entries; i++) {
+                blocks.add(SegmentBlock.readFrom(segment, in));
+            }
+            currentSegment = segment;
+        }
+    }
+
+    public synchronized void append(List<ArchivedTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        try {
+            byte[] block = compress(tasks);
+            Path segmentFile = segmentFile(currentSegment);
+            if (Files.exists(segmentFile) && Files.size(segmentFile) + block.length > segmentMaxBytes) {
+                currentSegment++;
+                segmentFile = segmentFile(currentSegment);
+            }
+
+            long offset;
+            try (FileChannel channel = FileChannel.open(segmentFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                offset = channel.size();
+                channel.write(ByteBuffer.wrap(block), offset);
+                channel.force(true);
+            }
+
+            SegmentBlock entry = describe(currentSegment, offset, block.length, tasks);
+            ByteArrayOutputStream indexBytes = new ByteArrayOutputStream(SegmentBlock.BYTES);
+            entry.writeTo(new DataOutputStream(indexBytes));
+            try (FileChannel channel = FileChannel.open(indexFile(currentSegment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(indexBytes.toByteArray()));
+                channel.force(true);
+            }
+            blocks.add(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append archive block", e);
+        }
+    }
+
+    // Newest first: a task archived twice (segment written, delete rolled back, retried) resolves to the latest copy
+    public Optional<ArchivedTask> findById(long id) {
+        for (int i = blocks.size() - 1; i >= 0; i--) {
+            SegmentBlock block = blocks.get(i);
+            if (block.mayContain(id)) {
+                for (ArchivedTask task : read(block)) {
+                    if (task.id() == id) {
+                        return Optional.of(task);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<ArchivedTask> findByFinishedTime(LocalDateTime from, LocalDateTime to, int limit) {
+        long fromSeconds = toSeconds(from);
+        long toSeconds = toSeconds(to);
+        List<ArchivedTask> result = new ArrayList<>();
+        for (SegmentBlock block : blocks) {
+            if (!block.overlaps(fromSeconds, toSeconds)) {
+                continue;
+            }
+            for (ArchivedTask task : read(block)) {
+                LocalDateTime finished = task.finishedTime();
+                if (!finished.isBefore(from) && !finished.isAfter(to)) {
+                    result.add(task);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private byte[] compress(List<ArchivedTask> tasks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes);
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(gzip)) {
+            writer.writeAll(tasks);
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<ArchivedTask> read(SegmentBlock block) {
+        try (FileChannel channel = FileChannel.open(segmentFile(block.segment()), StandardOpenOption.READ)) {
+            // Read exactly one member: GZIPInputStream would otherwise run on into the next one
+            ByteBuffer buffer = ByteBuffer.allocate(block.length());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, block.offset() + buffer.position()) < 0) {
+                    throw new EOFException("Archive block truncated in segment " + block.segment());
+                }
+            }
+            ObjectReader reader = objectMapper.readerFor(ArchivedTask.class);
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.array()))) {
+                return reader.<ArchivedTask>readValues(in).readAll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive block", e);
+        }
+    }
+
+    private static SegmentBlock describe(int segment, long offset, int length, List<ArchivedTask> tasks) {
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (ArchivedTask task : tasks) {
+            long time = toSeconds(task.finishedTime());
+            minId = Math.min(minId, task.id());
+            maxId = Math.max(maxId, task.id());
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+        }
+        return new SegmentBlock(segment, offset, length, tasks.size(), minId, maxId, minTime, maxTime);
+    }
+
+    private static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("tasks-%06d.seg", segment));
+    }
+
+    private Path indexFile(int segment) {
+        return directory.resolve(String.format("tasks-%06d.idx", segment));
+    }
+}
@@ -0,0 +1,37 @@
+package com.taskscheduler.archive;
+
+import com.taskscheduler.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A terminal task as written to an archive segment, together with its status history.
+ */
+public record ArchivedTask(
+    Long id,
+    String name,
+    String description,
+    Task.TaskPriority priority,
+    Task.TaskStatus status,
+    LocalDateTime scheduledTime,
+    LocalDateTime completedTime,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt,
+    Long userId,
+    Long dependentTaskId,
+    List<HistoryEntry> history
+) {
+    // Failed and cancelled tasks have no completion time, so they age from their last update
+    public LocalDateTime finishedTime() {
+        return completedTime != null ? completedTime : updatedAt;
+    }
+
+    public ArchivedTask withHistory(List<HistoryEntry> history) {
+        return new ArchivedTask(id, name, description, priority, status, scheduledTime, completedTime,
+            createdAt, updatedAt, userId, dependentTaskId, history);
+    }
+
+    public record HistoryEntry(Task.TaskStatus status, LocalDateTime timestamp, String details) {
+    }
+}
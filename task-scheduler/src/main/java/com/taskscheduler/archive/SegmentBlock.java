@@ -0,0 +1,37 @@
+package com.taskscheduler.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Index entry for one gzip member in a segment file: where it lies and the id and
+ * finished-time ranges of the tasks inside. Times are epoch seconds with the local time read as UTC.
+ */
+record SegmentBlock(int segment, long offset, int length, int count,
+                    long minId, long maxId, long minTime, long maxTime) {
+    static final int BYTES = 5 * Long.BYTES + 2 * Integer.BYTES;
+
+    boolean mayContain(long id) {
+        return id >= minId && id <= maxId;
+    }
+
+    boolean overlaps(long fromTime, long toTime) {
+        return maxTime >= fromTime && minTime <= toTime;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(offset);
+        out.writeInt(length);
+        out.writeInt(count);
+        out.writeLong(minId);
+        out.writeLong(maxId);
+        out.writeLong(minTime);
+        out.writeLong(maxTime);
+    }
+
+    static SegmentBlock readFrom(int segment, DataInput in) throws IOException {
+        return new SegmentBlock(segment, in.readLong(), in.readInt(), in.readInt(),
+            in.readLong(), in.readLong(), in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,9 @@
+package com.taskscheduler.cache;
+
+public record CacheStats(String name, int size, int maxSize, long hits, long misses, long evictions, double hitRatio) {
+
+    static CacheStats of(String name, int size, int maxSize, long hits, long misses, long evictions) {
+        long requests = hits + misses;
+        return new CacheStats(name, size, maxSize, hits, misses, evictions, requests == 0 ? 0 : (double) hits / requests);
+    }
+}
@@ -0,0 +1,164 @@
+package com.taskscheduler.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache with a time-to-live, loading misses through a caller-supplied function.
+ * Loads run outside the lock; a load that overlaps an invalidation of the same key is
+ * returned but not cached, so a reader can never re-cache a value an in-flight write just
+ * replaced. Invalidations of other keys do not affect it.
+ */
+public class ReadThroughCache<K, V> {
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+    // Key -> generation of its latest invalidation, for the most recently invalidated maxSize keys
+    private final LinkedHashMap<K, Long> invalidations;
+    // Newest generation dropped from invalidations; keys not tracked there are treated as invalidated at it
+    private long invalidationFloor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ReadThroughCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidations = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                if (size() > ReadThroughCache.this.maxSize) {
+                    invalidationFloor = Math.max(invalidationFloor, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        V cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            put(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    /**
+     * Batch variant: misses are loaded with one call to {@code loader}, which returns the
+     * values it found keyed by key. Keys it does not return are absent from the result.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, V> result = new LinkedHashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            V cached = lookup(key);
+            if (cached != null) {
+                result.put(key, cached);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadGeneration = generation.get();
+            Map<K, V> loaded = loader.apply(missing);
+            loaded.forEach((key, value) -> put(key, value, loadGeneration));
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    public void put(K key, V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            // Re-inserted so the map stays ordered by invalidation and drops the oldest first
+            invalidations.remove(key);
+            invalidations.put(key, generation.incrementAndGet());
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Invalidates now and again once the surrounding transaction commits, so a read that
+     * loaded the pre-commit row in between does not stay cached.
+     */
+    public void invalidateAfterCommit(K key) {
+        invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(key);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return CacheStats.of(name, size, maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private V lookup(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void put(K key, V value, long loadGeneration) {
+        synchronized (entries) {
+            if (invalidations.getOrDefault(key, invalidationFloor) <= loadGeneration) {
+                entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
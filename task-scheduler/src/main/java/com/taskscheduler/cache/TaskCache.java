@@ -0,0 +1,115 @@
+package com.taskscheduler.cache;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.model.User;
+import com.taskscheduler.repository.TaskCheckpoint;
+import com.taskscheduler.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caches the immutable part of a task (what to run, not its state) so dispatch can build
+ * claimed tasks without reloading each row. Status and ownership come from the claim
+ * itself and checkpoints are read fresh on every claim, since any instance may have
+ * written one; anything that saves a task invalidates its entry.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskCache {
+    private final TaskRepository taskRepository;
+
+    @Value("${cache.tasks.max-size:10000}")
+    private int maxSize;
+
+    @Value("${cache.tasks.ttl-ms:300000}")
+    private long ttlMs;
+
+    private ReadThroughCache<Long, Definition> definitions;
+
+    @PostConstruct
+    void createCache() {
+        definitions = new ReadThroughCache<>("tasks", maxSize, ttlMs);
+    }
+
+    // Populated at creation so tasks claimed on the node that created them never miss
+    public void put(Task task) {
+        definitions.put(task.getId(), Definition.of(task));
+    }
+
+    public void putAll(Collection<Task> tasks) {
+        tasks.forEach(this::put);
+    }
+
+    public void invalidate(Long taskId) {
+        definitions.invalidateAfterCommit(taskId);
+    }
+
+    /**
+     * Detached tasks for ids this instance just claimed, in claim order, with their latest
+     * persisted checkpoint. Tasks deleted since the claim are skipped.
+     */
+    public List<Task> loadClaimed(List<Long> taskIds, String ownerId) {
+        Map<Long, Definition> found = definitions.getAll(taskIds, missing ->
+            taskRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Task::getId, Definition::of)));
+        Map<Long, TaskCheckpoint> checkpoints = taskRepository.findCheckpoints(found.keySet()).stream()
+            .collect(Collectors.toMap(TaskCheckpoint::taskId, Function.identity()));
+        return taskIds.stream()
+            .map(found::get)
+            .filter(Objects::nonNull)
+            .map(definition -> definition.toClaimedTask(ownerId, checkpoints.get(definition.id())))
+            .toList();
+    }
+
+    public CacheStats stats() {
+        return definitions.stats();
+    }
+
+    private record Definition(Long id, String name, String description, Task.TaskPriority priority,
+                              Long userId, LocalDateTime scheduledTime, LocalDateTime deadline, LocalDateTime createdAt) {
+        static Definition of(Task task) {
+            // getId() on a lazy user proxy does not initialize it
+            Long userId = task.getAssignedUser() != null ? task.getAssignedUser().getId() : null;
+            return new Definition(task.getId(), task.getName(), task.getDescription(), task.getPriority(),
+                userId, task.getScheduledTime(), task.getDeadline(), task.getCreatedAt());
+        }
+
+        Task toClaimedTask(String ownerId, TaskCheckpoint checkpoint) {
+            return Task.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .priority(priority)
+                .assignedUser(userReference())
+                .status(Task.TaskStatus.RUNNING)
+                .scheduledTime(scheduledTime)
+                .deadline(deadline)
+                .createdAt(createdAt)
+                .progress(checkpoint != null ? checkpoint.progress() : null)
+                .checkpointData(checkpoint != null ? checkpoint.state() : null)
+                .checkpointAt(checkpoint != null ? checkpoint.checkpointAt() : null)
+                .ownerId(ownerId)
+                .build();
+        }
+
+        // Only the id is known; enough for the fair-share queue to key the task by user
+        private User userReference() {
+            if (userId == null) {
+                return null;
+            }
+            User user = new User();
+            user.setId(userId);
+            return user;
+        }
+    }
+}
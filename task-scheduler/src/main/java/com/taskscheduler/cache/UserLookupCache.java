@@ -0,0 +1,66 @@
+package com.taskscheduler.cache;
+
+import com.taskscheduler.model.User;
+import com.taskscheduler.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Caches which user id owns a username or email. Only found ids are cached: a "nobody"
+ * answer may be outdated by a user created on another instance at any moment, and would
+ * let a duplicate through validation. Ids rather than entities are cached so callers never
+ * share or mutate a cached entity. The unique constraints remain the final check for
+ * writes racing another instance.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserLookupCache {
+    private final UserRepository userRepository;
+
+    @Value("${cache.users.max-size:1000}")
+    private int maxSize;
+
+    @Value("${cache.users.ttl-ms:60000}")
+    private long ttlMs;
+
+    private ReadThroughCache<String, Long> byUsername;
+    private ReadThroughCache<String, Long> byEmail;
+
+    @PostConstruct
+    void createCaches() {
+        byUsername = new ReadThroughCache<>("users.username", maxSize, ttlMs);
+        byEmail = new ReadThroughCache<>("users.email", maxSize, ttlMs);
+    }
+
+    public Optional<Long> findIdByUsername(String username) {
+        return Optional.ofNullable(byUsername.get(username, key -> idOf(userRepository.findByUsername(key))));
+    }
+
+    public Optional<Long> findIdByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email, key -> idOf(userRepository.findByEmail(key))));
+    }
+
+    // Call with the user's values both before and after a change, so old and new keys are dropped
+    public void invalidate(User user) {
+        if (user.getUsername() != null) {
+            byUsername.invalidateAfterCommit(user.getUsername());
+        }
+        if (user.getEmail() != null) {
+            byEmail.invalidateAfterCommit(user.getEmail());
+        }
+    }
+
+    public List<CacheStats> stats() {
+        return List.of(byUsername.stats(), byEmail.stats());
+    }
+
+    // Null for no user, which the cache does not store
+    private static Long idOf(Optional<User> user) {
+        return user.map(User::getId).orElse(null);
+    }
+}
@@ -1,20 +1,33 @@
 package com.taskscheduler.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class ThreadPoolConfig {
     
     @Bean
-    public ThreadPoolTaskExecutor taskExecutor() {
+    public ThreadPoolTaskExecutor taskExecutor(
+            @Value("${thread.pool.core-size:5}") int coreSize,
+            @Value("${thread.pool.max-size:10}") int maxSize,
+            @Value("${thread.pool.queue-capacity:25}") int queueCapacity) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(25);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix("TaskExecutor-");
         executor.initialize();
         return executor;
     }
+
+    // Requires a Java 21 runtime; concurrency is bounded by TaskLauncher rather than a pool size
+    @Bean
+    @ConditionalOnProperty(name = "task.execution.mode", havingValue = "virtual")
+    public VirtualThreadTaskExecutor virtualTaskExecutor() {
+        return new VirtualThreadTaskExecutor("VirtualTask-");
+    }
 }
@@ -0,0 +1,34 @@
+package com.taskscheduler.controller;
+
+import com.taskscheduler.archive.ArchivedTask;
+import com.taskscheduler.service.ArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/archive/tasks")
+@RequiredArgsConstructor
+public class ArchiveController {
+    private static final int MAX_RESULTS = 1000;
+
+    private final ArchiveService archiveService;
+
+    @GetMapping("/{taskId}")
+    public ResponseEntity<ArchivedTask> getArchivedTask(@PathVariable Long taskId) {
+        return ResponseEntity.of(archiveService.findArchivedTask(taskId));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ArchivedTask>> getArchivedTasks(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        int maxResults = Math.max(1, Math.min(limit, MAX_RESULTS));
+        return ResponseEntity.ok(archiveService.findArchivedTasks(from, to, maxResults));
+    }
+}
@@ -1,20 +1,100 @@
 package com.taskscheduler.controller;
 
+import com.taskscheduler.cache.CacheStats;
+import com.taskscheduler.events.TaskEventBus;
+import com.taskscheduler.metrics.LifecycleMetrics;
+import com.taskscheduler.metrics.SeriesPoint;
+import com.taskscheduler.metrics.SlaMetrics;
+import com.taskscheduler.metrics.SystemMetric;
+import com.taskscheduler.metrics.TaskMetricsRegistry;
 import com.taskscheduler.model.*;
+import com.taskscheduler.scheduling.PriorityLaneQueue;
 import com.taskscheduler.service.*;
+import com.taskscheduler.websocket.ConflatingPublisher;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/metrics")
 @RequiredArgsConstructor
 public class MetricsController {
+    private static final int MIN_POINTS = 3;
+
     private final MetricsService metricsService;
+
+    @Value("${metrics.query.max-points:300}")
+    private int maxPoints;
     
     @GetMapping("/recent")
-    public ResponseEntity<List<SystemMetrics>> getRecentMetrics() {
-        return ResponseEntity.ok(metricsService.getRecentMetrics());
+    public ResponseEntity<List<SystemMetrics>> getRecentMetrics(
+            @RequestParam(required = false) Integer points) {
+        return ResponseEntity.ok(metricsService.getRecentMetrics(pointBudget(points)));
+    }
+    
+    @GetMapping("/series")
+    public ResponseEntity<List<SeriesPoint>> getSeries(
+            @RequestParam SystemMetric metric,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer points) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(1);
+        return ResponseEntity.ok(metricsService.getSeries(metric, start, end, pointBudget(points)));
+    }
+    
+    @GetMapping("/tasks")
+    public ResponseEntity<TaskMetricsRegistry.Snapshot> getTaskCounters() {
+        return ResponseEntity.ok(metricsService.getTaskCounters());
+    }
+    
+    @GetMapping("/caches")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(metricsService.getCacheStats());
+    }
+    
+    // Empty under the EDF dispatch policy
+    @GetMapping("/lanes")
+    public ResponseEntity<List<PriorityLaneQueue.LaneStats>> getLaneStats() {
+        return ResponseEntity.ok(metricsService.getLaneStats());
+    }
+    
+    @GetMapping("/users")
+    public ResponseEntity<List<UserQuotas.UserShareStats>> getUserShareStats() {
+        return ResponseEntity.ok(metricsService.getUserShareStats());
+    }
+    
+    @GetMapping("/lifecycle")
+    public ResponseEntity<List<LifecycleMetrics.StageStats>> getLifecycleStats(
+            @RequestParam(required = false) Task.TaskPriority priority) {
+        return ResponseEntity.ok(metricsService.getLifecycleStats(priority));
+    }
+    
+    @GetMapping("/sla")
+    public ResponseEntity<SlaMetrics.Snapshot> getSlaStats() {
+        return ResponseEntity.ok(metricsService.getSlaStats());
+    }
+    
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionController.AdmissionStats> getAdmissionStats() {
+        return ResponseEntity.ok(metricsService.getAdmissionStats());
+    }
+    
+    @GetMapping("/websocket")
+    public ResponseEntity<ConflatingPublisher.PublisherStats> getPublisherStats() {
+        return ResponseEntity.ok(metricsService.getPublisherStats());
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<TaskEventBus.EventBusStats> getEventBusStats() {
+        return ResponseEntity.ok(metricsService.getEventBusStats());
+    }
+
+    private int pointBudget(Integer requested) {
+        return requested == null ? maxPoints : Math.max(MIN_POINTS, Math.min(requested, maxPoints));
     }
 }
\ No newline at end of file
@@ -1,10 +1,27 @@
 package com.taskscheduler.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.taskscheduler.dto.BulkCreateResponse;
+import com.taskscheduler.dto.TaskPage;
+import com.taskscheduler.exception.AdmissionRejectedException;
 import com.taskscheduler.model.*;
+import com.taskscheduler.repository.TaskFilter;
 import com.taskscheduler.service.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
@@ -12,10 +29,34 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${tasks.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${tasks.page.max-size:1000}")
+    private int maxPageSize;
     
     @PostMapping
     public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        return ResponseEntity.ok(taskService.createTask(task));
+        try {
+            return ResponseEntity.ok(taskService.createTask(task));
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .build();
+        }
+    }
+    
+    @PostMapping(value = "/bulk", consumes = "application/json")
+    public ResponseEntity<BulkCreateResponse> createTasks(@RequestBody List<Task> tasks) {
+        return bulkResponse(tasks.iterator());
+    }
+
+    // One JSON task per line, parsed lazily so large uploads are never held in memory at once
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<BulkCreateResponse> createTasksFromStream(InputStream body) throws IOException {
+        return bulkResponse(rejectingMalformed(objectMapper.readerFor(Task.class).readValues(body)));
     }
     
     @PutMapping("/{taskId}/status")
@@ -26,7 +67,74 @@ public class TaskController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Task>> getTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<TaskPage> getTasks(
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Task.TaskPriority priority,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        try {
+            return ResponseEntity.ok(taskService.getTasks(new TaskFilter(status, priority, userId), cursor, pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Full export, one JSON task per line, written from a database cursor as rows arrive
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasks(
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Task.TaskPriority priority,
+            @RequestParam(required = false) Long userId) {
+        TaskFilter filter = new TaskFilter(status, priority, userId);
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                taskService.streamTasks(filter, summary -> {
+                    try {
+                        writer.write(summary);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private ResponseEntity<BulkCreateResponse> bulkResponse(Iterator<Task> tasks) {
+        BulkCreateResponse response = taskService.createTasks(tasks);
+        if (response.error() != null) {
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (!response.isComplete()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(response.retryAfterSeconds()))
+                .body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // A malformed line only surfaces once earlier lines may have been created, so it is reported like an invalid task
+    private static Iterator<Task> rejectingMalformed(Iterator<Task> tasks) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return tasks.hasNext();
+                } catch (RuntimeJsonMappingException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public Task next() {
+                try {
+                    return tasks.next();
+                } catch (RuntimeJsonMappingException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            }
+        };
     }
 }
\ No newline at end of file
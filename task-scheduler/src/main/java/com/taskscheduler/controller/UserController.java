@@ -40,6 +40,15 @@ public class UserController {
         }
     }
 
+    @PutMapping("/{id}/quota")
+    public ResponseEntity<User> updateQuota(@PathVariable Long id, @RequestBody User quota) {
+        try {
+            return ResponseEntity.ok(userService.updateQuota(id, quota));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         try {
@@ -0,0 +1,27 @@
+package com.taskscheduler.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk submission. Chunks commit as they go, so {@code taskIds} always lists
+ * what was created: a non-zero {@code retryAfterSeconds} means admission control stopped
+ * the request part-way, a non-null {@code error} that it stopped at an invalid task.
+ */
+public record BulkCreateResponse(int created, List<Long> taskIds, long retryAfterSeconds, String error) {
+
+    public static BulkCreateResponse completed(List<Long> taskIds) {
+        return new BulkCreateResponse(taskIds.size(), taskIds, 0, null);
+    }
+
+    public static BulkCreateResponse throttled(List<Long> taskIds, long retryAfterSeconds) {
+        return new BulkCreateResponse(taskIds.size(), taskIds, retryAfterSeconds, null);
+    }
+
+    public static BulkCreateResponse rejected(List<Long> taskIds, String error) {
+        return new BulkCreateResponse(taskIds.size(), taskIds, 0, error);
+    }
+
+    public boolean isComplete() {
+        return retryAfterSeconds == 0 && error == null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.taskscheduler.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page in {@code (scheduledTime, id)} order, passed to
+ * clients as an opaque token.
+ */
+public record TaskCursor(LocalDateTime scheduledTime, long id) {
+
+    public static TaskCursor after(TaskSummary task) {
+        return new TaskCursor(task.scheduledTime(), task.id());
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new TaskCursor(LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String value = scheduledTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,9 @@
+package com.taskscheduler.dto;
+
+import java.util.List;
+
+/**
+ * One page of a task listing; {@code nextCursor} is null on the last page.
+ */
+public record TaskPage(List<TaskSummary> tasks, String nextCursor) {
+}
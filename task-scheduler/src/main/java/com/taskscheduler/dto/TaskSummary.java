@@ -0,0 +1,27 @@
+package com.taskscheduler.dto;
+
+import com.taskscheduler.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model of a task for listings, read by column so no entity or lazy association is loaded.
+ */
+public record TaskSummary(
+    Long id,
+    String name,
+    String description,
+    Task.TaskPriority priority,
+    Task.TaskStatus status,
+    LocalDateTime scheduledTime,
+    LocalDateTime completedTime,
+    LocalDateTime deadline,
+    LocalDateTime updatedAt,
+    Long userId,
+    Long dependentTaskId
+) {
+    public TaskSummary withState(Task.TaskStatus status, LocalDateTime completedTime, LocalDateTime updatedAt) {
+        return new TaskSummary(id, name, description, priority, status, scheduledTime, completedTime,
+            deadline, updatedAt, userId, dependentTaskId);
+    }
+}
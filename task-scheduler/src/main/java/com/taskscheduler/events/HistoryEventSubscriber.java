@@ -0,0 +1,26 @@
+package com.taskscheduler.events;
+
+import com.taskscheduler.service.TaskHistoryLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Queues status transitions for the task history. Worker transitions arrive only once the
+ * journal has written them, so history never records a state the tasks table rejected.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoryEventSubscriber implements TaskEventSubscriber {
+    private final TaskHistoryLog taskHistoryLog;
+
+    @Override
+    public void onEvents(List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            if (event.type() == TaskEvent.Type.STATUS_CHANGED) {
+                taskHistoryLog.record(event.taskId(), event.from(), event.status());
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskscheduler.events;
+
+import com.taskscheduler.metrics.TaskMetricsRegistry;
+import com.taskscheduler.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Counts created, completed and failed tasks from task events. The active-task gauge is
+ * not event driven: it is updated inline around each run so it never lags the executor.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricsEventSubscriber implements TaskEventSubscriber {
+    private final TaskMetricsRegistry taskMetricsRegistry;
+
+    @Override
+    public void onEvents(List<TaskEvent> events) {
+        int created = 0;
+        int failed = 0;
+        for (TaskEvent event : events) {
+            switch (event.type()) {
+                case CREATED -> created++;
+                case BULK_CREATED -> created += event.taskIds().size();
+                case STATUS_CHANGED -> {
+                    if (event.status() == Task.TaskStatus.COMPLETED) {
+                        taskMetricsRegistry.incrementTasksCompleted();
+                    } else if (event.status() == Task.TaskStatus.FAILED) {
+                        failed++;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (created > 0) {
+            taskMetricsRegistry.incrementTasksCreated(created);
+        }
+        if (failed > 0) {
+            taskMetricsRegistry.incrementTasksFailed(failed);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskscheduler.events;
+
+import com.taskscheduler.model.Task;
+
+import java.util.List;
+
+/**
+ * A task lifecycle event carried by the {@link TaskEventBus}. Which fields are set depends on
+ * the type; {@code status} is the task's status when the event was raised, since the task
+ * itself may have moved on by the time a subscriber sees it. {@code raisedAt} is the
+ * {@link System#nanoTime()} it was raised at, as delivery may come much later.
+ */
+public record TaskEvent(
+    Type type,
+    Long taskId,
+    Task task,
+    Task.TaskStatus from,
+    Task.TaskStatus status,
+    List<Long> taskIds,
+    int progress,
+    String message,
+    long raisedAt
+) {
+    public enum Type { CREATED, BULK_CREATED, STATUS_CHANGED, UPDATED, PROGRESS, ERROR }
+
+    public static TaskEvent created(Task task) {
+        return new TaskEvent(Type.CREATED, task.getId(), task, null, task.getStatus(), null, 0, null, System.nanoTime());
+    }
+
+    public static TaskEvent bulkCreated(List<Long> taskIds) {
+        return new TaskEvent(Type.BULK_CREATED, null, null, null, Task.TaskStatus.PENDING, List.copyOf(taskIds), 0, null, System.nanoTime());
+    }
+
+    public static TaskEvent statusChanged(Task task, Task.TaskStatus from, Task.TaskStatus to) {
+        return new TaskEvent(Type.STATUS_CHANGED, task.getId(), task, from, to, null, 0, null, System.nanoTime());
+    }
+
+    public static TaskEvent updated(Task task) {
+        return new TaskEvent(Type.UPDATED, task.getId(), task, null, task.getStatus(), null, 0, null, System.nanoTime());
+    }
+
+    public static TaskEvent progress(Long taskId, int progress) {
+        return new TaskEvent(Type.PROGRESS, taskId, null, null, null, null, progress, null, System.nanoTime());
+    }
+
+    public static TaskEvent error(Long taskId, String message) {
+        return new TaskEvent(Type.ERROR, taskId, null, null, null, null, 0, message, System.nanoTime());
+    }
+}
@@ -0,0 +1,251 @@
+package com.taskscheduler.events;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers {@link TaskEvent}s to every {@link TaskEventSubscriber} off the publishing thread.
+ * Events go into a fixed ring buffer; each subscriber has a consumer thread that reads the
+ * ring at its own pace and takes everything published since its last batch, so a slow
+ * WebSocket send or history insert never holds up a task run.
+ *
+ * Events published inside a transaction are only put on the ring after it commits, so
+ * subscribers never see a change that was rolled back. A producer blocks only when the ring
+ * is full, i.e. when a subscriber has fallen a whole ring behind.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskEventBus {
+    // How long an idle consumer parks before rechecking the ring without being woken
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_RING_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int IDLE_SPINS = 100;
+
+    private final List<TaskEventSubscriber> subscribers;
+
+    @Value("${events.ring-size:16384}")
+    private int ringSize;
+
+    @Value("${events.max-batch:256}")
+    private int maxBatch;
+
+    @Value("${events.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private TaskEvent[] ring;
+    // Slot -> sequence of the event last published into it; consumers read a slot only once it matches
+    private AtomicLongArray published;
+    private int mask;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final LongAdder producerStalls = new LongAdder();
+    private final List<Consumer> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("events.ring-size must be a power of two: " + ringSize);
+        }
+        ring = new TaskEvent[ringSize];
+        published = new AtomicLongArray(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            published.set(i, -1);
+        }
+        mask = ringSize - 1;
+        running = true;
+        for (TaskEventSubscriber subscriber : subscribers) {
+            Consumer consumer = new Consumer(subscriber);
+            consumer.thread = new Thread(consumer, "TaskEvents-" + subscriber.getClass().getSimpleName());
+            consumer.thread.setDaemon(true);
+            consumers.add(consumer);
+        }
+        consumers.forEach(consumer -> consumer.thread.start());
+    }
+
+    public void publish(TaskEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    // Consumers finish whatever is on the ring before they exit; later events are delivered inline
+    @PreDestroy
+    public void stop() {
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMs);
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+            try {
+                consumer.thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (consumer.thread.isAlive()) {
+                log.warn("Event subscriber {} did not drain within {} ms, {} events undelivered",
+                    consumer.name(), shutdownTimeoutMs, nextSequence.get() - 1 - consumer.consumed);
+            }
+        }
+    }
+
+    public EventBusStats stats() {
+        long last = nextSequence.get() - 1;
+        List<SubscriberStats> subscriberStats = new ArrayList<>(consumers.size());
+        for (Consumer consumer : consumers) {
+            long batches = consumer.batches.sum();
+            long delivered = consumer.delivered.sum();
+            subscriberStats.add(new SubscriberStats(
+                consumer.name(),
+                delivered,
+                batches,
+                batches == 0 ? 0 : (double) delivered / batches,
+                Math.max(0, last - consumer.consumed),
+                consumer.failures.sum()
+            ));
+        }
+        return new EventBusStats(ringSize, last + 1, producerStalls.sum(), subscriberStats);
+    }
+
+    private void enqueue(TaskEvent event) {
+        if (!running) {
+            deliverInline(event);
+            return;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        // The slot is free once every consumer is past the event a full ring earlier
+        long wrapPoint = sequence - ring.length;
+        if (wrapPoint > minConsumed()) {
+            producerStalls.increment();
+            // Stops waiting on shutdown, when consumers may already have exited
+            while (wrapPoint > minConsumed() && running) {
+                LockSupport.parkNanos(FULL_RING_PARK_NANOS);
+            }
+        }
+        int slot = (int) (sequence & mask);
+        ring[slot] = event;
+        published.set(slot, sequence);
+        for (Consumer consumer : consumers) {
+            if (consumer.parked) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    private long minConsumed() {
+        long min = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            min = Math.min(min, consumer.consumed);
+        }
+        return min;
+    }
+
+    private void deliverInline(TaskEvent event) {
+        List<TaskEvent> single = List.of(event);
+        for (TaskEventSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onEvents(single);
+            } catch (RuntimeException e) {
+                log.error("Event subscriber {} failed", subscriber.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private final class Consumer implements Runnable {
+        final TaskEventSubscriber subscriber;
+        final LongAdder delivered = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        Thread thread;
+        // Sequence of the last event handed to the subscriber; its slot may be reused after this
+        volatile long consumed = -1;
+        volatile boolean parked;
+
+        Consumer(TaskEventSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        String name() {
+            return subscriber.getClass().getSimpleName();
+        }
+
+        @Override
+        public void run() {
+            List<TaskEvent> batch = new ArrayList<>(maxBatch);
+            int idle = 0;
+            while (true) {
+                long sequence = consumed + 1;
+                while (batch.size() < maxBatch && published.get((int) (sequence & mask)) == sequence) {
+                    batch.add(ring[(int) (sequence & mask)]);
+                    sequence++;
+                }
+                if (batch.isEmpty()) {
+                    if (!running && consumed == nextSequence.get() - 1) {
+                        return;
+                    }
+                    idle(idle++);
+                    continue;
+                }
+                idle = 0;
+                try {
+                    subscriber.onEvents(batch);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.error("Event subscriber {} failed on a batch of {} events", name(), batch.size(), e);
+                }
+                delivered.add(batch.size());
+                batches.increment();
+                batch.clear();
+                consumed = sequence - 1;
+            }
+        }
+
+        private void idle(int rounds) {
+            if (rounds < IDLE_SPINS) {
+                Thread.onSpinWait();
+                return;
+            }
+            parked = true;
+            // Recheck after announcing the park so a producer that just published either sees the flag or is seen here
+            long next = consumed + 1;
+            if (published.get((int) (next & mask)) != next && running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            parked = false;
+        }
+    }
+
+    public record SubscriberStats(
+        String subscriber,
+        long delivered,
+        long batches,
+        double avgBatchSize,
+        long lag,
+        long failedBatches
+    ) {
+    }
+
+    public record EventBusStats(int ringSize, long published, long producerStalls, List<SubscriberStats> subscribers) {
+    }
+}
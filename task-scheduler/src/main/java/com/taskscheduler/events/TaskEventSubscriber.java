@@ -0,0 +1,12 @@
+package com.taskscheduler.events;
+
+import java.util.List;
+
+/**
+ * Consumer of {@link TaskEvent}s. Every subscriber bean gets its own consumer thread on the
+ * {@link TaskEventBus} and sees all events in publish order, in batches of whatever has
+ * accumulated since its last call; the list is only valid for the duration of the call.
+ */
+public interface TaskEventSubscriber {
+    void onEvents(List<TaskEvent> events);
+}
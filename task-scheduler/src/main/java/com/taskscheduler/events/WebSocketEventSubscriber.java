@@ -0,0 +1,41 @@
+package com.taskscheduler.events;
+
+import com.taskscheduler.metrics.LifecycleMetrics;
+import com.taskscheduler.model.Task;
+import com.taskscheduler.websocket.WebSocketService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Pushes task events to WebSocket clients. Completions also close the NOTIFIED stage of
+ * their lifecycle timing, which includes the journal write that releases the event and
+ * the time spent on the event bus.
+ */
+@Component
+@RequiredArgsConstructor
+public class WebSocketEventSubscriber implements TaskEventSubscriber {
+    private final WebSocketService webSocketService;
+    private final LifecycleMetrics lifecycleMetrics;
+
+    @Override
+    public void onEvents(List<TaskEvent> events) {
+        for (TaskEvent event : events) {
+            switch (event.type()) {
+                case CREATED -> webSocketService.notifyTaskUpdate(event.task());
+                case UPDATED -> {
+                    webSocketService.notifyTaskUpdate(event.task());
+                    if (event.status() == Task.TaskStatus.COMPLETED) {
+                        lifecycleMetrics.notified(event.taskId());
+                    }
+                }
+                case BULK_CREATED -> webSocketService.notifyTasksCreated(event.taskIds());
+                case PROGRESS -> webSocketService.notifyTaskProgress(event.taskId(), event.progress());
+                case ERROR -> webSocketService.notifyTaskError(event.taskId(), event.message());
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.taskscheduler.metrics;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.model.Task.TaskPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer timers of each task lifecycle stage, tagged by stage and priority and scraped
+ * from {@code /actuator/prometheus}. Timestamps of tasks in flight on this node are held
+ * from the moment they are queued until their completion has been both persisted and
+ * published; tasks that leave earlier (skipped, cancelled, shed, failed or paused) are
+ * discarded with their remaining stages unrecorded.
+ *
+ * At most {@code metrics.lifecycle.max-tracked} tasks are followed at once, beyond which
+ * new tasks go unmeasured rather than growing the map. Tasks still tracked after
+ * {@code metrics.lifecycle.max-age-ms} are dropped, so an exit path that never discards
+ * its task cannot fill the map for good. Timers are local to this node and start empty
+ * on boot.
+ */
+@Component
+public class LifecycleMetrics {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+    private static final LifecycleStage[] STAGES = LifecycleStage.values();
+
+    private final Timer[][] timers = new Timer[STAGES.length][PRIORITIES.length];
+    private final ConcurrentHashMap<Long, Stamps> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${metrics.lifecycle.max-tracked:100000}")
+    private int maxTracked;
+
+    @Value("${metrics.lifecycle.max-age-ms:3600000}")
+    private long maxAgeMs;
+
+    public LifecycleMetrics(MeterRegistry registry) {
+        for (LifecycleStage stage : STAGES) {
+            for (TaskPriority priority : PRIORITIES) {
+                timers[stage.ordinal()][priority.ordinal()] = Timer.builder("task.stage.latency")
+                    .description("Latency of each task lifecycle stage")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .tag("priority", priority.name())
+                    .publishPercentiles(QUANTILES)
+                    .publishPercentileHistogram()
+                    // End-to-end includes time spent waiting for a dependency or an executor slot
+                    .maximumExpectedValue(Duration.ofHours(1))
+                    .register(registry);
+            }
+        }
+        Gauge.builder("tasks.lifecycle.tracked", inFlight, Map::size)
+            .description("Tasks whose lifecycle stages are being timed")
+            .register(registry);
+    }
+
+    // dueNanos is when the task was found due, before it was claimed and loaded
+    public void enqueued(Task task, long dueNanos) {
+        if (inFlight.size() >= maxTracked) {
+            return;
+        }
+        long now = System.nanoTime();
+        long dueMillis = System.currentTimeMillis() - (now - dueNanos) / 1_000_000;
+        long scheduledMillis = task.getScheduledTime() != null ? toEpochMillis(task.getScheduledTime()) : dueMillis;
+        Stamps stamps = new Stamps(task.getPriority(), scheduledMillis, now);
+        inFlight.put(task.getId(), stamps);
+        record(LifecycleStage.DUE, stamps, (dueMillis - scheduledMillis) * 1000);
+        record(LifecycleStage.ENQUEUED, stamps, (now - dueNanos) / 1000);
+    }
+
+    public void dispatched(Long taskId) {
+        Stamps stamps = inFlight.get(taskId);
+        if (stamps != null) {
+            stamps.dispatchedAt = System.nanoTime();
+            record(LifecycleStage.DISPATCHED, stamps, (stamps.dispatchedAt - stamps.enqueuedAt) / 1000);
+        }
+    }
+
+    public void started(Long taskId) {
+        Stamps stamps = inFlight.get(taskId);
+        if (stamps != null && stamps.dispatchedAt != 0) {
+            stamps.startedAt = System.nanoTime();
+            record(LifecycleStage.STARTED, stamps, (stamps.startedAt - stamps.dispatchedAt) / 1000);
+        }
+    }
+
+    public void completed(Long taskId) {
+        Stamps stamps = inFlight.get(taskId);
+        if (stamps != null && stamps.startedAt != 0) {
+            stamps.completedAt = System.nanoTime();
+            record(LifecycleStage.COMPLETED, stamps, (stamps.completedAt - stamps.startedAt) / 1000);
+            record(LifecycleStage.END_TO_END, stamps, (System.currentTimeMillis() - stamps.scheduledMillis) * 1000);
+        }
+    }
+
+    public void notified(Long taskId) {
+        finish(taskId, LifecycleStage.NOTIFIED);
+    }
+
+    // Called once the journal has committed these tasks' COMPLETED transitions
+    public void persisted(Collection<Long> taskIds) {
+        taskIds.forEach(taskId -> finish(taskId, LifecycleStage.PERSISTED));
+    }
+
+    public void discard(Long taskId) {
+        inFlight.remove(taskId);
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.lifecycle.sweep-interval-ms:60000}")
+    public void evictStale() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        inFlight.values().removeIf(stamps -> stamps.enqueuedAt - cutoff < 0);
+    }
+
+    /**
+     * Stages with at least one sample, optionally for a single priority. Counts and means
+     * cover the whole uptime; quantiles and the maximum cover Micrometer's recent window.
+     */
+    public List<StageStats> snapshot(TaskPriority priority) {
+        List<StageStats> stats = new ArrayList<>();
+        for (LifecycleStage stage : STAGES) {
+            for (TaskPriority candidate : PRIORITIES) {
+                if (priority != null && candidate != priority) {
+                    continue;
+                }
+                HistogramSnapshot histogram = timers[stage.ordinal()][candidate.ordinal()].takeSnapshot();
+                if (histogram.count() == 0) {
+                    continue;
+                }
+                // In the order of QUANTILES
+                ValueAtPercentile[] values = histogram.percentileValues();
+                stats.add(new StageStats(stage, candidate, histogram.count(),
+                    histogram.mean(TimeUnit.MILLISECONDS),
+                    values[0].value(TimeUnit.MILLISECONDS), values[1].value(TimeUnit.MILLISECONDS),
+                    values[2].value(TimeUnit.MILLISECONDS), values[3].value(TimeUnit.MILLISECONDS),
+                    histogram.max(TimeUnit.MILLISECONDS)));
+            }
+        }
+        return stats;
+    }
+
+    // The last of the persisted and notified stages to arrive stops tracking the task
+    private void finish(Long taskId, LifecycleStage stage) {
+        Stamps stamps = inFlight.get(taskId);
+        if (stamps == null || stamps.completedAt == 0) {
+            return;
+        }
+        record(stage, stamps, (System.nanoTime() - stamps.completedAt) / 1000);
+        if (stamps.unfinished.decrementAndGet() == 0) {
+            inFlight.remove(taskId, stamps);
+        }
+    }
+
+    // A timer can fire slightly early, making the due lag negative; Micrometer would drop it, so count it as zero
+    private void record(LifecycleStage stage, Stamps stamps, long micros) {
+        timers[stage.ordinal()][stamps.priority.ordinal()].record(Math.max(0, micros), TimeUnit.MICROSECONDS);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public record StageStats(
+        LifecycleStage stage,
+        TaskPriority priority,
+        long count,
+        double meanMillis,
+        double p50Millis,
+        double p90Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+    ) {
+    }
+
+    private static final class Stamps {
+        final TaskPriority priority;
+        final long scheduledMillis;
+        final long enqueuedAt;
+        volatile long dispatchedAt;
+        volatile long startedAt;
+        volatile long completedAt;
+        // Persisted and notified, in either order
+        final AtomicInteger unfinished = new AtomicInteger(2);
+
+        Stamps(TaskPriority priority, long scheduledMillis, long enqueuedAt) {
+            this.priority = priority;
+            this.scheduledMillis = scheduledMillis;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.taskscheduler.metrics;
+
+/**
+ * Latencies measured across a task's life on the instance that runs it, each named after
+ * the point it ends at.
+ */
+public enum LifecycleStage {
+    // Scheduled time to the timer firing (or a work-sharing sweep finding the task)
+    DUE,
+    // Due to claimed and loaded into the ready queue
+    ENQUEUED,
+    // Waiting in the ready queue until handed to the executor
+    DISPATCHED,
+    // Waiting in the executor queue and for a concurrency permit
+    STARTED,
+    // The run itself
+    COMPLETED,
+    // Completion until the journal has committed it
+    PERSISTED,
+    // Completion until handed to WebSocket publishing, including the journal write that publishes it and the event bus
+    NOTIFIED,
+    // Scheduled time to completion
+    END_TO_END
+}
@@ -0,0 +1,40 @@
+package com.taskscheduler.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Min, max and average of every {@link SystemMetric} over the samples taken in one interval.
+ * Arrays are indexed by {@link SystemMetric#ordinal()}.
+ */
+public record MetricsRollup(long startMillis, long endMillis, int samples, double[] min, double[] max, double[] avg) {
+
+    static MetricsRollup of(long timestampMillis, double[] values) {
+        return new MetricsRollup(timestampMillis, timestampMillis, 1, values.clone(), values.clone(), values.clone());
+    }
+
+    /**
+     * Combines adjacent rollups into one covering all of them, weighting averages by sample count.
+     */
+    static MetricsRollup merge(MetricsRollup[] rollups, int from, int to) {
+        int metrics = rollups[from].avg.length;
+        double[] min = new double[metrics];
+        double[] max = new double[metrics];
+        double[] sum = new double[metrics];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        int samples = 0;
+        for (int i = from; i < to; i++) {
+            MetricsRollup rollup = rollups[i];
+            for (int m = 0; m < metrics; m++) {
+                min[m] = Math.min(min[m], rollup.min[m]);
+                max[m] = Math.max(max[m], rollup.max[m]);
+                sum[m] += rollup.avg[m] * rollup.samples;
+            }
+            samples += rollup.samples;
+        }
+        for (int m = 0; m < metrics; m++) {
+            sum[m] /= samples;
+        }
+        return new MetricsRollup(rollups[from].startMillis, rollups[to - 1].endMillis, samples, min, max, sum);
+    }
+}
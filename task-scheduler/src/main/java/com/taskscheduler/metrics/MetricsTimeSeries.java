@@ -0,0 +1,216 @@
+package com.taskscheduler.metrics;
+
+import com.taskscheduler.model.SystemMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory time series of system metrics samples. Raw samples are kept alongside 1-minute
+ * and 1-hour rollups (min/max/avg), each in its own fixed-size ring sized from the retention.
+ * Queries read the finest resolution that covers the window within the point budget, then
+ * downsample to the budget.
+ */
+@Component
+public class MetricsTimeSeries {
+    private static final long MINUTE_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    // A resolution is used while it needs at most this many points per requested point
+    private static final int MAX_OVERSAMPLING = 8;
+
+    @Value("${metrics.collect-interval-ms:5000}")
+    private long rawStepMs;
+
+    @Value("${metrics.store.raw-retention-minutes:60}")
+    private long rawRetentionMinutes;
+
+    @Value("${metrics.store.minute-retention-hours:168}")
+    private long minuteRetentionHours;
+
+    @Value("${metrics.store.hour-retention-days:90}")
+    private long hourRetentionDays;
+
+    private Resolution[] resolutions;
+    private Accumulator minuteAccumulator;
+    private Accumulator hourAccumulator;
+
+    @PostConstruct
+    void createRings() {
+        resolutions = new Resolution[] {
+            new Resolution(rawStepMs, TimeUnit.MINUTES.toMillis(rawRetentionMinutes), null),
+            new Resolution(MINUTE_MS, TimeUnit.HOURS.toMillis(minuteRetentionHours), minuteAccumulator = new Accumulator(MINUTE_MS)),
+            new Resolution(HOUR_MS, TimeUnit.DAYS.toMillis(hourRetentionDays), hourAccumulator = new Accumulator(HOUR_MS))
+        };
+    }
+
+    /**
+     * Appends a sample and rolls it up.
+     *
+     * @return the minute rollup sealed by this sample, or {@code null} if the minute is still open
+     */
+    public synchronized MetricsRollup record(SystemMetrics metrics) {
+        long timestampMillis = metrics.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        MetricsRollup sample = MetricsRollup.of(timestampMillis, SystemMetric.extract(metrics));
+        resolutions[0].ring.add(sample);
+
+        MetricsRollup sealedMinute = minuteAccumulator.add(sample);
+        if (sealedMinute != null) {
+            resolutions[1].ring.add(sealedMinute);
+            MetricsRollup sealedHour = hourAccumulator.add(sealedMinute);
+            if (sealedHour != null) {
+                resolutions[2].ring.add(sealedHour);
+            }
+        }
+        return sealedMinute;
+    }
+
+    /**
+     * All metrics in the window, merged into at most {@code maxPoints} consecutive intervals.
+     */
+    public List<MetricsRollup> query(long fromMillis, long toMillis, int maxPoints) {
+        List<MetricsRollup> rollups = select(fromMillis, toMillis, maxPoints);
+        if (rollups.size() <= maxPoints) {
+            return rollups;
+        }
+        MetricsRollup[] source = rollups.toArray(MetricsRollup[]::new);
+        List<MetricsRollup> merged = new ArrayList<>(maxPoints);
+        for (int bucket = 0; bucket < maxPoints; bucket++) {
+            int from = (int) ((long) bucket * source.length / maxPoints);
+            int to = (int) ((long) (bucket + 1) * source.length / maxPoints);
+            merged.add(MetricsRollup.merge(source, from, to));
+        }
+        return merged;
+    }
+
+    /**
+     * One metric in the window, reduced to at most {@code maxPoints} with largest-triangle-three-buckets
+     * on the averages so peaks and dips survive downsampling.
+     */
+    public List<SeriesPoint> series(SystemMetric metric, long fromMillis, long toMillis, int maxPoints) {
+        List<MetricsRollup> rollups = select(fromMillis, toMillis, maxPoints);
+        int m = metric.ordinal();
+        List<SeriesPoint> points = new ArrayList<>(Math.min(rollups.size(), maxPoints));
+        for (int index : largestTriangleThreeBuckets(rollups, m, maxPoints)) {
+            MetricsRollup rollup = rollups.get(index);
+            points.add(new SeriesPoint(toLocalDateTime(rollup.startMillis()), rollup.min()[m], rollup.max()[m], rollup.avg()[m]));
+        }
+        return points;
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private synchronized List<MetricsRollup> select(long fromMillis, long toMillis, int maxPoints) {
+        long window = Math.max(0, toMillis - fromMillis);
+        Resolution chosen = resolutions[resolutions.length - 1];
+        for (Resolution resolution : resolutions) {
+            boolean covers = fromMillis >= System.currentTimeMillis() - resolution.retentionMs;
+            if (covers && window / resolution.stepMs <= (long) maxPoints * MAX_OVERSAMPLING) {
+                chosen = resolution;
+                break;
+            }
+        }
+        List<MetricsRollup> rollups = chosen.ring.range(fromMillis, toMillis);
+        if (chosen.accumulator != null) {
+            // Include the interval still being filled so the newest data is visible at coarse resolutions
+            MetricsRollup open = chosen.accumulator.peek();
+            if (open != null && open.endMillis() >= fromMillis && open.startMillis() <= toMillis) {
+                rollups.add(open);
+            }
+        }
+        return rollups;
+    }
+
+    private static int[] largestTriangleThreeBuckets(List<MetricsRollup> rollups, int metric, int threshold) {
+        int size = rollups.size();
+        if (threshold >= size || threshold < 3) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, size);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += rollups.get(i).startMillis();
+                avgY += rollups.get(i).avg()[metric];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = nextStart;
+            double ax = rollups.get(a).startMillis();
+            double ay = rollups.get(a).avg()[metric];
+            double maxArea = -1;
+            int best = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (rollups.get(i).avg()[metric] - ay)
+                    - (ax - rollups.get(i).startMillis()) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            selected[bucket + 1] = best;
+            a = best;
+        }
+        selected[threshold - 1] = size - 1;
+        return selected;
+    }
+
+    private record Resolution(long stepMs, long retentionMs, Accumulator accumulator, RollupRing ring) {
+        Resolution(long stepMs, long retentionMs, Accumulator accumulator) {
+            this(stepMs, retentionMs, accumulator, new RollupRing((int) Math.min(Integer.MAX_VALUE, retentionMs / stepMs)));
+        }
+    }
+
+    /**
+     * Collects rollups for the current interval and seals it once one arrives for a later interval.
+     */
+    private static final class Accumulator {
+        private final long intervalMs;
+        private final List<MetricsRollup> pending = new ArrayList<>();
+        private long intervalStart = Long.MIN_VALUE;
+
+        Accumulator(long intervalMs) {
+            this.intervalMs = intervalMs;
+        }
+
+        MetricsRollup add(MetricsRollup rollup) {
+            long start = rollup.startMillis() - Math.floorMod(rollup.startMillis(), intervalMs);
+            MetricsRollup sealed = null;
+            if (start != intervalStart) {
+                sealed = peek();
+                pending.clear();
+                intervalStart = start;
+            }
+            pending.add(rollup);
+            return sealed;
+        }
+
+        MetricsRollup peek() {
+            if (pending.isEmpty()) {
+                return null;
+            }
+            MetricsRollup merged = MetricsRollup.merge(pending.toArray(MetricsRollup[]::new), 0, pending.size());
+            return new MetricsRollup(intervalStart, merged.endMillis(), merged.samples(), merged.min(), merged.max(), merged.avg());
+        }
+    }
+}
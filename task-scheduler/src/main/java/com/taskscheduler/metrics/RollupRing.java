@@ -0,0 +1,38 @@
+package com.taskscheduler.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring of rollups in time order; the oldest entry is overwritten once full.
+ * Not thread-safe, {@link MetricsTimeSeries} guards access.
+ */
+class RollupRing {
+    private final MetricsRollup[] entries;
+    private int head;
+    private int size;
+
+    RollupRing(int capacity) {
+        this.entries = new MetricsRollup[Math.max(1, capacity)];
+    }
+
+    void add(MetricsRollup rollup) {
+        entries[(head + size) % entries.length] = rollup;
+        if (size < entries.length) {
+            size++;
+        } else {
+            head = (head + 1) % entries.length;
+        }
+    }
+
+    List<MetricsRollup> range(long fromMillis, long toMillis) {
+        List<MetricsRollup> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            MetricsRollup rollup = entries[(head + i) % entries.length];
+            if (rollup.endMillis() >= fromMillis && rollup.startMillis() <= toMillis) {
+                result.add(rollup);
+            }
+        }
+        return result;
+    }
+}
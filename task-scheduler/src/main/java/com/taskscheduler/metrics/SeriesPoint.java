@@ -0,0 +1,6 @@
+package com.taskscheduler.metrics;
+
+import java.time.LocalDateTime;
+
+public record SeriesPoint(LocalDateTime timestamp, double min, double max, double avg) {
+}
@@ -0,0 +1,78 @@
+package com.taskscheduler.metrics;
+
+import com.taskscheduler.model.Task.TaskPriority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deadline outcomes of tasks that carry an explicit deadline, per priority: completed in
+ * time, completed late, or shed before running. Slack (deadline minus completion time,
+ * negative when late) goes into a histogram with fixed bucket bounds. Counts are local to
+ * this node and start from zero on boot.
+ */
+@Component
+public class SlaMetrics {
+    // Upper bounds in seconds of all but the last (open-ended) slack bucket
+    private static final long[] SLACK_BOUNDS_SECONDS = {-600, -60, -10, -1, 0, 1, 10, 60, 600, 3600};
+
+    private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+    private final LongAdder[] met = counters(PRIORITIES.length);
+    private final LongAdder[] missed = counters(PRIORITIES.length);
+    private final LongAdder[] shed = counters(PRIORITIES.length);
+    private final LongAdder[] slack = counters(SLACK_BOUNDS_SECONDS.length + 1);
+
+    public void recordCompletion(TaskPriority priority, long slackMillis) {
+        (slackMillis >= 0 ? met : missed)[priority.ordinal()].increment();
+        slack[bucketOf(slackMillis)].increment();
+    }
+
+    public void recordShed(TaskPriority priority) {
+        shed[priority.ordinal()].increment();
+    }
+
+    public Snapshot snapshot() {
+        List<PriorityCounts> priorities = new ArrayList<>(PRIORITIES.length);
+        for (TaskPriority priority : PRIORITIES) {
+            int i = priority.ordinal();
+            priorities.add(new PriorityCounts(priority, met[i].sum(), missed[i].sum(), shed[i].sum()));
+        }
+        List<SlackBucket> buckets = new ArrayList<>(slack.length);
+        for (int i = 0; i < slack.length; i++) {
+            Long upperBound = i < SLACK_BOUNDS_SECONDS.length ? SLACK_BOUNDS_SECONDS[i] : null;
+            buckets.add(new SlackBucket(upperBound, slack[i].sum()));
+        }
+        return new Snapshot(priorities, buckets);
+    }
+
+    // Bucket i holds slack in (bound[i-1], bound[i]] seconds
+    private static int bucketOf(long slackMillis) {
+        for (int i = 0; i < SLACK_BOUNDS_SECONDS.length; i++) {
+            if (slackMillis <= SLACK_BOUNDS_SECONDS[i] * 1000) {
+                return i;
+            }
+        }
+        return SLACK_BOUNDS_SECONDS.length;
+    }
+
+    private static LongAdder[] counters(int count) {
+        LongAdder[] counters = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    public record PriorityCounts(TaskPriority priority, long met, long missed, long shed) {
+    }
+
+    // Tasks whose slack was at most upperBoundSeconds and above the previous bucket's bound; null means unbounded
+    public record SlackBucket(Long upperBoundSeconds, long count) {
+    }
+
+    public record Snapshot(List<PriorityCounts> priorities, List<SlackBucket> slack) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.taskscheduler.metrics;
+
+import com.taskscheduler.model.SystemMetrics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The numeric columns of {@link SystemMetrics} tracked by {@link MetricsTimeSeries}.
+ */
+public enum SystemMetric {
+    ACTIVE_TASKS(m -> m.getActiveTasks()),
+    CPU_USAGE(SystemMetrics::getCpuUsage),
+    MEMORY_USAGE(SystemMetrics::getMemoryUsage),
+    THREAD_POOL_SIZE(m -> m.getThreadPoolSize()),
+    QUEUE_SIZE(m -> m.getQueueSize());
+
+    private static final SystemMetric[] VALUES = values();
+
+    private final ToDoubleFunction<SystemMetrics> extractor;
+
+    SystemMetric(ToDoubleFunction<SystemMetrics> extractor) {
+        this.extractor = extractor;
+    }
+
+    static double[] extract(SystemMetrics metrics) {
+        double[] values = new double[VALUES.length];
+        for (SystemMetric metric : VALUES) {
+            values[metric.ordinal()] = metric.extractor.applyAsDouble(metrics);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,74 @@
+package com.taskscheduler.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free task lifecycle counters. {@link LongAdder} stripes updates across cells so
+ * worker threads never contend on a single word; reads sum the cells. Counts are local
+ * to this node and start from zero on boot. They are bound to the Micrometer registry as
+ * function counters and a gauge, so a scrape reads the adders rather than copying them.
+ */
+@Component
+public class TaskMetricsRegistry implements MeterBinder {
+    private final LongAdder created = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder active = new LongAdder();
+
+    public void incrementTasksCreated(int count) {
+        created.add(count);
+    }
+
+    public void incrementActiveTasks() {
+        active.increment();
+    }
+
+    public void decrementActiveTasks() {
+        active.decrement();
+    }
+
+    public void incrementTasksCompleted() {
+        completed.increment();
+    }
+
+    public void incrementTasksFailed() {
+        failed.increment();
+    }
+
+    public void incrementTasksFailed(int count) {
+        failed.add(count);
+    }
+
+    public int getActiveTasks() {
+        return active.intValue();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("tasks.created", created, LongAdder::sum)
+            .description("Tasks created on this node")
+            .register(registry);
+        FunctionCounter.builder("tasks.completed", completed, LongAdder::sum)
+            .description("Tasks completed on this node")
+            .register(registry);
+        FunctionCounter.builder("tasks.failed", failed, LongAdder::sum)
+            .description("Tasks failed on this node")
+            .register(registry);
+        Gauge.builder("tasks.active", active, LongAdder::sum)
+            .description("Tasks running on this node")
+            .register(registry);
+    }
+
+    public Snapshot snapshot(int queuedTasks) {
+        return new Snapshot(created.sum(), completed.sum(), failed.sum(), active.sum(), queuedTasks);
+    }
+
+    public record Snapshot(long created, long completed, long failed, long active, long queued) {
+    }
+}
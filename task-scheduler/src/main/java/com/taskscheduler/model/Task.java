@@ -1,5 +1,6 @@
 package com.taskscheduler.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -11,8 +12,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Table(name = "tasks")
 public class Task {
+    // Pooled sequence ids let Hibernate and the bulk JDBC path batch inserts
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
@@ -28,11 +33,28 @@ public class Task {
     @Column(nullable = false)
     private TaskStatus status;
     
+    @Column(nullable = false)
     private LocalDateTime scheduledTime;
     private LocalDateTime completedTime;
+    // Optional time by which the task should have completed
+    private LocalDateTime deadline;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    private String ownerId;
+    private LocalDateTime leaseExpiresAt;
+    
+    // Written only by CheckpointStore, so saving a task loaded earlier cannot roll back a newer checkpoint
+    @Column(insertable = false, updatable = false)
+    private Integer progress;
+    
+    @JsonIgnore
+    @Column(insertable = false, updatable = false)
+    private byte[] checkpointData;
+    
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime checkpointAt;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User assignedUser;
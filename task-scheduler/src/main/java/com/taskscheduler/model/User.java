@@ -21,6 +21,13 @@ public class User {
     
     private LocalDateTime createdAt;
     
+    // Fair-share quota; null uses the scheduler's default weight or leaves the limit off
+    private Integer shareWeight;
+    private Integer maxConcurrentTasks;
+    // Token bucket: tasks started per second, up to dispatchBurst at once
+    private Double dispatchRate;
+    private Integer dispatchBurst;
+    
     @OneToMany(mappedBy = "assignedUser")
     private Set<Task> assignedTasks;
 }
\ No newline at end of file
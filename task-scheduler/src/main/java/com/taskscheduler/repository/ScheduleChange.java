@@ -0,0 +1,15 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.Task;
+
+import java.time.LocalDateTime;
+
+// A task row as the scheduler's in-memory state sees it, with the status of the task it depends on
+public record ScheduleChange(
+    long id,
+    Task.TaskStatus status,
+    LocalDateTime scheduledTime,
+    Long dependencyId,
+    Task.TaskStatus dependencyStatus
+) {
+}
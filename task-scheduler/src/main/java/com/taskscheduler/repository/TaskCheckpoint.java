@@ -0,0 +1,21 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress (0-100) and an opaque state blob a running task can resume from. A null
+ * {@code state} means there is nothing to resume.
+ */
+public record TaskCheckpoint(Long taskId, int progress, byte[] state, LocalDateTime checkpointAt) {
+
+    public static TaskCheckpoint of(Long taskId, int progress, byte[] state) {
+        return new TaskCheckpoint(taskId, progress, state, LocalDateTime.now());
+    }
+
+    public static TaskCheckpoint of(Task task) {
+        return task.getCheckpointData() == null ? null : new TaskCheckpoint(task.getId(),
+            task.getProgress() != null ? task.getProgress() : 0, task.getCheckpointData(), task.getCheckpointAt());
+    }
+}
@@ -0,0 +1,9 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.Task;
+
+/**
+ * Optional equality filters for task listings; null fields match everything.
+ */
+public record TaskFilter(Task.TaskStatus status, Task.TaskPriority priority, Long userId) {
+}
@@ -0,0 +1,17 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.Task;
+
+import java.time.LocalDateTime;
+
+public record TaskHistoryEvent(
+    Long taskId,
+    Task.TaskStatus status,
+    LocalDateTime timestamp,
+    String details
+) {
+    // Same wording the V3 audit trigger used, so rows from both sources read alike
+    public static TaskHistoryEvent transition(Long taskId, Task.TaskStatus from, Task.TaskStatus to) {
+        return new TaskHistoryEvent(taskId, to, LocalDateTime.now(), "Status changed from " + from + " to " + to);
+    }
+}
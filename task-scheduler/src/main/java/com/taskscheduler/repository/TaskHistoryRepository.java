@@ -0,0 +1,7 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.TaskHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TaskHistoryRepository extends JpaRepository<TaskHistory, Long>, TaskHistoryRepositoryCustom {
+}
@@ -0,0 +1,9 @@
+package com.taskscheduler.repository;
+
+import java.util.List;
+
+public interface TaskHistoryRepositoryCustom {
+    void insertAll(List<TaskHistoryEvent> events);
+
+    boolean statusTriggerExists();
+}
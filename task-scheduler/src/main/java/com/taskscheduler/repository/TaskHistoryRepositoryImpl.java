@@ -0,0 +1,46 @@
+package com.taskscheduler.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Batched history inserts, plus DDL for the V3 status trigger they replace. With
+ * reWriteBatchedInserts each batch reaches PostgreSQL as multi-row INSERTs.
+ */
+@RequiredArgsConstructor
+public class TaskHistoryRepositoryImpl implements TaskHistoryRepositoryCustom {
+    private static final String INSERT =
+        "INSERT INTO task_history (task_id, status, timestamp, details) " +
+        "VALUES (:taskId, :status, :timestamp, :details)";
+
+    private static final String TRIGGER_NAME = "log_task_status_changes";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<TaskHistoryEvent> events) {
+        SqlParameterSource[] batch = events.stream()
+            .map(event -> new MapSqlParameterSource()
+                .addValue("taskId", event.taskId())
+                .addValue("status", event.status().name())
+                .addValue("timestamp", event.timestamp())
+                .addValue("details", event.details()))
+            .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT, batch);
+    }
+
+    @Override
+    public boolean statusTriggerExists() {
+        Integer existing = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_trigger WHERE tgname = :name AND tgrelid = 'tasks'::regclass",
+            new MapSqlParameterSource("name", TRIGGER_NAME),
+            Integer.class);
+        return existing != null && existing > 0;
+    }
+}
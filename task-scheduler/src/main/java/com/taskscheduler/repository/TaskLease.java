@@ -0,0 +1,6 @@
+package com.taskscheduler.repository;
+
+import java.time.LocalDateTime;
+
+public record TaskLease(Long id, String ownerId, LocalDateTime leaseExpiresAt) {
+}
@@ -5,16 +5,39 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByAssignedUser_Id(Long userId);
     List<Task> findByStatus(Task.TaskStatus status);
     
     @Query("SELECT t FROM Task t WHERE t.status = 'PENDING' AND " +
            "(t.dependentTask IS NULL OR t.dependentTask.status = 'COMPLETED')")
     List<Task> findExecutableTasks();
+
+    @Query("SELECT t.id AS id, t.scheduledTime AS scheduledTime, " +
+           "d.id AS dependencyId, d.status AS dependencyStatus " +
+           "FROM Task t LEFT JOIN t.dependentTask d WHERE t.status = 'PENDING'")
+    List<ScheduleEntry> findPendingSchedule();
+
+    @Query("SELECT t.id AS id, t.scheduledTime AS scheduledTime, " +
+           "d.id AS dependencyId, d.status AS dependencyStatus " +
+           "FROM Task t JOIN t.dependentTask d WHERE t.id IN :ids AND " +
+           "t.status = 'PENDING' AND d.status <> 'COMPLETED'")
+    List<ScheduleEntry> findDependencyBlocked(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.status FROM Task t WHERE t.id = :id")
+    Optional<Task.TaskStatus> findStatusById(@Param("id") Long id);
     
     List<Task> findByStatusAndScheduledTimeBefore(Task.TaskStatus status, LocalDateTime threshold);
     List<Task> findByStatusAndCompletedTimeBefore(Task.TaskStatus status, LocalDateTime threshold);
+
+    interface ScheduleEntry {
+        Long getId();
+        LocalDateTime getScheduledTime();
+        Long getDependencyId();
+        Task.TaskStatus getDependencyStatus();
+    }
 }
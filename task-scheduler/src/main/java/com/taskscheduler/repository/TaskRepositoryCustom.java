@@ -0,0 +1,47 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.archive.ArchivedTask;
+import com.taskscheduler.dto.TaskCursor;
+import com.taskscheduler.dto.TaskSummary;
+import com.taskscheduler.model.Task;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface TaskRepositoryCustom {
+    List<Long> claimDueTasks(String ownerId, LocalDateTime now, LocalDateTime leaseExpiresAt, int limit);
+
+    List<Long> claimTasks(Collection<Long> taskIds, String ownerId, LocalDateTime now, LocalDateTime leaseExpiresAt);
+
+    List<Long> releaseTasks(Collection<Long> taskIds, String ownerId);
+
+    List<Long> shedTasks(Collection<Long> taskIds, String ownerId);
+
+    List<Long> failPending(Collection<Long> taskIds);
+
+    List<Long> renewLeases(Collection<Long> taskIds, String ownerId, LocalDateTime leaseExpiresAt);
+
+    List<TaskLease> findForeignLeases(String ownerId);
+
+    List<Long> expireLeases(Collection<Long> taskIds, LocalDateTime now, Task.TaskStatus status);
+
+    List<Long> insertAll(List<Task> tasks);
+
+    List<Long> updateStates(List<TaskStateUpdate> updates, String ownerId);
+
+    void updateCheckpoints(Collection<TaskCheckpoint> checkpoints, String ownerId);
+
+    List<TaskCheckpoint> findCheckpoints(Collection<Long> taskIds);
+
+    List<TaskSummary> findSummaries(TaskFilter filter, TaskCursor after, int limit);
+
+    void streamSummaries(TaskFilter filter, Consumer<TaskSummary> consumer);
+
+    void streamScheduleChanges(LocalDateTime since, Consumer<ScheduleChange> consumer);
+
+    List<ArchivedTask> lockArchivable(LocalDateTime finishedBefore, int limit);
+
+    void deleteArchived(Collection<Long> taskIds);
+}
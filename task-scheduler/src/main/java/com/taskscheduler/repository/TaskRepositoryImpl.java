@@ -0,0 +1,451 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.archive.ArchivedTask;
+import com.taskscheduler.dto.TaskCursor;
+import com.taskscheduler.dto.TaskSummary;
+import com.taskscheduler.model.Task;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Claims use FOR UPDATE SKIP LOCKED so concurrent scheduler instances each take a
+ * disjoint set of rows instead of blocking on (or double-running) the same tasks.
+ * Every statement that changes a row's status or dependency sets updated_at itself, as
+ * the snapshot catch-up finds changed rows by it and no trigger can be assumed.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    private static final String CLAIMABLE =
+        "SELECT t.id FROM tasks t " +
+        "LEFT JOIN tasks d ON d.id = t.dependent_task_id " +
+        "WHERE t.status = 'PENDING' " +
+        "AND (t.scheduled_time IS NULL OR t.scheduled_time <= :now) " +
+        "AND (t.dependent_task_id IS NULL OR d.status = 'COMPLETED') ";
+
+    private static final String CLAIM =
+        "UPDATE tasks SET status = 'RUNNING', owner_id = :ownerId, lease_expires_at = :leaseExpiresAt, updated_at = :now " +
+        "WHERE id IN (%s) RETURNING id";
+
+    private static final String INSERT =
+        "INSERT INTO tasks (id, name, description, priority, status, scheduled_time, deadline, " +
+        "user_id, dependent_task_id, created_at, updated_at) " +
+        "VALUES (:id, :name, :description, :priority, :status, :scheduledTime, :deadline, " +
+        ":userId, :dependentTaskId, :createdAt, :updatedAt)";
+
+    private static final String UPDATE_STATE =
+        "UPDATE tasks SET status = :status, completed_time = :completedTime, updated_at = :updatedAt " +
+        "WHERE id = :id AND status = 'RUNNING' AND owner_id = :ownerId";
+
+    private static final String SUMMARY =
+        "SELECT id, name, description, priority, status, scheduled_time, completed_time, deadline, updated_at, " +
+        "user_id, dependent_task_id FROM tasks WHERE 1 = 1 ";
+
+    private static final String SCHEDULE_CHANGES =
+        "SELECT t.id, t.status, t.scheduled_time, d.id AS dependency_id, d.status AS dependency_status " +
+        "FROM tasks t LEFT JOIN tasks d ON d.id = t.dependent_task_id WHERE t.updated_at > :since";
+
+    private static final RowMapper<TaskSummary> SUMMARY_MAPPER = (rs, rowNum) -> new TaskSummary(
+        rs.getLong("id"),
+        rs.getString("name"),
+        rs.getString("description"),
+        Task.TaskPriority.valueOf(rs.getString("priority")),
+        Task.TaskStatus.valueOf(rs.getString("status")),
+        toLocalDateTime(rs.getTimestamp("scheduled_time")),
+        toLocalDateTime(rs.getTimestamp("completed_time")),
+        toLocalDateTime(rs.getTimestamp("deadline")),
+        toLocalDateTime(rs.getTimestamp("updated_at")),
+        rs.getObject("user_id", Long.class),
+        rs.getObject("dependent_task_id", Long.class));
+
+    private static final String TERMINAL = "('COMPLETED', 'FAILED', 'CANCELLED', 'ARCHIVED')";
+
+    // Tasks that unfinished children still depend on stay until those children finish
+    private static final String ARCHIVABLE =
+        "SELECT t.* FROM tasks t " +
+        "WHERE t.status IN " + TERMINAL + " " +
+        "AND COALESCE(t.completed_time, t.updated_at) < :finishedBefore " +
+        "AND NOT EXISTS (SELECT 1 FROM tasks c WHERE c.dependent_task_id = t.id " +
+        "AND c.status NOT IN " + TERMINAL + ") " +
+        "ORDER BY t.id LIMIT :limit FOR UPDATE OF t SKIP LOCKED";
+
+    private static final RowMapper<ArchivedTask> ARCHIVED_MAPPER = (rs, rowNum) -> new ArchivedTask(
+        rs.getLong("id"),
+        rs.getString("name"),
+        rs.getString("description"),
+        Task.TaskPriority.valueOf(rs.getString("priority")),
+        Task.TaskStatus.valueOf(rs.getString("status")),
+        toLocalDateTime(rs.getTimestamp("scheduled_time")),
+        toLocalDateTime(rs.getTimestamp("completed_time")),
+        toLocalDateTime(rs.getTimestamp("created_at")),
+        toLocalDateTime(rs.getTimestamp("updated_at")),
+        rs.getObject("user_id", Long.class),
+        rs.getObject("dependent_task_id", Long.class),
+        List.of());
+
+    private static final String UPDATE_CHECKPOINT =
+        "UPDATE tasks SET progress = :progress, checkpoint_data = :state, checkpoint_at = :checkpointAt " +
+        "WHERE id = :id AND owner_id = :ownerId";
+
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // Same data source, but fetches in chunks so exports run on a server-side cursor instead of one result set
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public TaskRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(STREAM_FETCH_SIZE);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    @Override
+    public List<Long> claimDueTasks(String ownerId, LocalDateTime now, LocalDateTime leaseExpiresAt, int limit) {
+        String candidates = CLAIMABLE + "ORDER BY t.scheduled_time LIMIT :limit FOR UPDATE OF t SKIP LOCKED";
+        MapSqlParameterSource params = claimParams(ownerId, now, leaseExpiresAt)
+            .addValue("limit", limit);
+        return jdbcTemplate.queryForList(String.format(CLAIM, candidates), params, Long.class);
+    }
+
+    @Override
+    public List<Long> claimTasks(Collection<Long> taskIds, String ownerId, LocalDateTime now,
+                                 LocalDateTime leaseExpiresAt) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        String candidates = CLAIMABLE + "AND t.id IN (:ids) FOR UPDATE OF t SKIP LOCKED";
+        MapSqlParameterSource params = claimParams(ownerId, now, leaseExpiresAt)
+            .addValue("ids", taskIds);
+        return jdbcTemplate.queryForList(String.format(CLAIM, candidates), params, Long.class);
+    }
+
+    @Override
+    public List<Long> releaseTasks(Collection<Long> taskIds, String ownerId) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+            "UPDATE tasks SET status = 'PENDING', owner_id = NULL, lease_expires_at = NULL, updated_at = :now " +
+            "WHERE id IN (:ids) AND status = 'RUNNING' AND owner_id = :ownerId RETURNING id",
+            new MapSqlParameterSource("ids", taskIds)
+                .addValue("ownerId", ownerId)
+                .addValue("now", LocalDateTime.now()),
+            Long.class);
+    }
+
+    // Fails claimed tasks that were never handed to the executor
+    @Override
+    public List<Long> shedTasks(Collection<Long> taskIds, String ownerId) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+            "UPDATE tasks SET status = 'FAILED', owner_id = NULL, lease_expires_at = NULL, updated_at = :now " +
+            "WHERE id IN (:ids) AND status = 'RUNNING' AND owner_id = :ownerId RETURNING id",
+            new MapSqlParameterSource("ids", taskIds)
+                .addValue("ownerId", ownerId)
+                .addValue("now", LocalDateTime.now()),
+            Long.class);
+    }
+
+    // Fails unclaimed tasks, e.g. children of a parent that will never complete
+    @Override
+    public List<Long> failPending(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+            "UPDATE tasks SET status = 'FAILED', updated_at = :now " +
+            "WHERE id IN (:ids) AND status = 'PENDING' RETURNING id",
+            new MapSqlParameterSource("ids", taskIds).addValue("now", LocalDateTime.now()),
+            Long.class);
+    }
+
+    @Override
+    public List<Long> renewLeases(Collection<Long> taskIds, String ownerId, LocalDateTime leaseExpiresAt) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+            "UPDATE tasks SET lease_expires_at = :leaseExpiresAt " +
+            "WHERE id IN (:ids) AND status = 'RUNNING' AND owner_id = :ownerId RETURNING id",
+            new MapSqlParameterSource("ids", taskIds)
+                .addValue("ownerId", ownerId)
+                .addValue("leaseExpiresAt", leaseExpiresAt),
+            Long.class);
+    }
+
+    @Override
+    public List<TaskLease> findForeignLeases(String ownerId) {
+        return jdbcTemplate.query(
+            "SELECT id, owner_id, lease_expires_at FROM tasks " +
+            "WHERE status = 'RUNNING' AND owner_id IS DISTINCT FROM :ownerId",
+            new MapSqlParameterSource("ownerId", ownerId),
+            (rs, rowNum) -> new TaskLease(
+                rs.getLong("id"),
+                rs.getString("owner_id"),
+                toLocalDateTime(rs.getTimestamp("lease_expires_at"))));
+    }
+
+    @Override
+    public List<Long> expireLeases(Collection<Long> taskIds, LocalDateTime now, Task.TaskStatus status) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(
+            "UPDATE tasks SET status = :status, owner_id = NULL, lease_expires_at = NULL, updated_at = :now " +
+            "WHERE id IN (:ids) AND status = 'RUNNING' " +
+            "AND (lease_expires_at IS NULL OR lease_expires_at < :now) RETURNING id",
+            new MapSqlParameterSource("ids", taskIds)
+                .addValue("status", status.name())
+                .addValue("now", now),
+            Long.class);
+    }
+
+    /**
+     * Inserts tasks with JDBC batches, drawing ids from the same pooled sequence blocks
+     * Hibernate uses so both paths can coexist. Ids and timestamps are set on the tasks.
+     */
+    @Override
+    @Transactional
+    public List<Long> insertAll(List<Task> tasks) {
+        List<Long> ids = allocateIds(tasks.size());
+        LocalDateTime now = LocalDateTime.now();
+        SqlParameterSource[] batch = new SqlParameterSource[tasks.size()];
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            task.setId(ids.get(i));
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+            batch[i] = new MapSqlParameterSource()
+                .addValue("id", task.getId())
+                .addValue("name", task.getName())
+                .addValue("description", task.getDescription())
+                .addValue("priority", task.getPriority().name())
+                .addValue("status", task.getStatus().name())
+                .addValue("scheduledTime", task.getScheduledTime())
+                .addValue("deadline", task.getDeadline())
+                .addValue("userId", task.getAssignedUser() != null ? task.getAssignedUser().getId() : null)
+                .addValue("dependentTaskId", task.getDependentTask() != null ? task.getDependentTask().getId() : null)
+                .addValue("createdAt", now)
+                .addValue("updatedAt", now);
+        }
+
+        for (int from = 0; from < batch.length; from += INSERT_BATCH_SIZE) {
+            int to = Math.min(from + INSERT_BATCH_SIZE, batch.length);
+            jdbcTemplate.batchUpdate(INSERT, Arrays.copyOfRange(batch, from, to));
+        }
+        return ids;
+    }
+
+    /**
+     * Writes state only to rows this owner still runs, so a node that lost its lease cannot
+     * overwrite the new owner's state.
+     *
+     * @return ids of the updates that matched no such row
+     */
+    @Override
+    @Transactional
+    public List<Long> updateStates(List<TaskStateUpdate> updates, String ownerId) {
+        SqlParameterSource[] batch = updates.stream()
+            .map(update -> new MapSqlParameterSource()
+                .addValue("id", update.id())
+                .addValue("status", update.status().name())
+                .addValue("completedTime", update.completedTime())
+                .addValue("updatedAt", update.updatedAt())
+                .addValue("ownerId", ownerId))
+            .toArray(SqlParameterSource[]::new);
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_STATE, batch);
+        List<Long> fenced = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                fenced.add(updates.get(i).id());
+            }
+        }
+        return fenced;
+    }
+
+    /**
+     * Seeks past {@code after} in {@code (scheduled_time, id)} order, so every page costs
+     * an index range scan of {@code limit} rows however deep the client has paged.
+     */
+    @Override
+    public List<TaskSummary> findSummaries(TaskFilter filter, TaskCursor after, int limit) {
+        MapSqlParameterSource params = filterParams(filter).addValue("limit", limit);
+        StringBuilder sql = new StringBuilder(SUMMARY).append(filterClause(filter));
+        if (after != null) {
+            sql.append("AND (scheduled_time, id) > (:afterTime, :afterId) ");
+            params.addValue("afterTime", after.scheduledTime()).addValue("afterId", after.id());
+        }
+        sql.append("ORDER BY scheduled_time, id LIMIT :limit");
+        return jdbcTemplate.query(sql.toString(), params, SUMMARY_MAPPER);
+    }
+
+    // PostgreSQL only honours the fetch size inside a transaction; otherwise it buffers the whole result
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSummaries(TaskFilter filter, Consumer<TaskSummary> consumer) {
+        String sql = SUMMARY + filterClause(filter) + "ORDER BY scheduled_time, id";
+        streamingJdbcTemplate.query(sql, filterParams(filter),
+            (RowCallbackHandler) rs -> consumer.accept(SUMMARY_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    // Every row touched since the given time, for catching up in-memory state restored from a snapshot
+    @Override
+    @Transactional(readOnly = true)
+    public void streamScheduleChanges(LocalDateTime since, Consumer<ScheduleChange> consumer) {
+        streamingJdbcTemplate.query(SCHEDULE_CHANGES, new MapSqlParameterSource("since", since),
+            (RowCallbackHandler) rs -> {
+                long dependencyId = rs.getLong("dependency_id");
+                boolean dependent = !rs.wasNull();
+                String dependencyStatus = rs.getString("dependency_status");
+                consumer.accept(new ScheduleChange(
+                    rs.getLong("id"),
+                    Task.TaskStatus.valueOf(rs.getString("status")),
+                    toLocalDateTime(rs.getTimestamp("scheduled_time")),
+                    dependent ? dependencyId : null,
+                    dependencyStatus != null ? Task.TaskStatus.valueOf(dependencyStatus) : null));
+            });
+    }
+
+    /**
+     * Row-locks a chunk of old terminal tasks and loads them with their history. Must run in
+     * the transaction that later calls {@link #deleteArchived}.
+     */
+    @Override
+    public List<ArchivedTask> lockArchivable(LocalDateTime finishedBefore, int limit) {
+        List<ArchivedTask> tasks = jdbcTemplate.query(ARCHIVABLE,
+            new MapSqlParameterSource("finishedBefore", finishedBefore).addValue("limit", limit),
+            ARCHIVED_MAPPER);
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+
+        List<Long> ids = tasks.stream().map(ArchivedTask::id).toList();
+        Map<Long, List<ArchivedTask.HistoryEntry>> history = jdbcTemplate.query(
+                "SELECT task_id, status, timestamp, details FROM task_history WHERE task_id IN (:ids) ORDER BY id",
+                new MapSqlParameterSource("ids", ids),
+                (rs, rowNum) -> Map.entry(rs.getLong("task_id"), new ArchivedTask.HistoryEntry(
+                    Task.TaskStatus.valueOf(rs.getString("status")),
+                    toLocalDateTime(rs.getTimestamp("timestamp")),
+                    rs.getString("details"))))
+            .stream()
+            .collect(Collectors.groupingBy(Map.Entry::getKey,
+                Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        return tasks.stream()
+            .map(task -> task.withHistory(history.getOrDefault(task.id(), List.of())))
+            .toList();
+    }
+
+    // Set-based: history, child references and the rows themselves go in three statements per chunk
+    @Override
+    public void deleteArchived(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", taskIds).addValue("now", LocalDateTime.now());
+        jdbcTemplate.update("DELETE FROM task_history WHERE task_id IN (:ids)", params);
+        jdbcTemplate.update("UPDATE tasks SET dependent_task_id = NULL, updated_at = :now WHERE dependent_task_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM tasks WHERE id IN (:ids)", params);
+    }
+
+    @Override
+    @Transactional
+    public void updateCheckpoints(Collection<TaskCheckpoint> checkpoints, String ownerId) {
+        SqlParameterSource[] batch = checkpoints.stream()
+            .map(checkpoint -> new MapSqlParameterSource()
+                .addValue("id", checkpoint.taskId())
+                .addValue("ownerId", ownerId)
+                .addValue("progress", checkpoint.progress())
+                .addValue("state", checkpoint.state())
+                .addValue("checkpointAt", checkpoint.checkpointAt()))
+            .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(UPDATE_CHECKPOINT, batch);
+    }
+
+    @Override
+    public List<TaskCheckpoint> findCheckpoints(Collection<Long> taskIds) {
+        if (taskIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            "SELECT id, progress, checkpoint_data, checkpoint_at FROM tasks " +
+            "WHERE id IN (:ids) AND checkpoint_data IS NOT NULL",
+            new MapSqlParameterSource("ids", taskIds),
+            (rs, rowNum) -> new TaskCheckpoint(
+                rs.getLong("id"),
+                rs.getInt("progress"),
+                rs.getBytes("checkpoint_data"),
+                toLocalDateTime(rs.getTimestamp("checkpoint_at"))));
+    }
+
+    /**
+     * Each nextval reserves the block (value - ID_ALLOCATION_SIZE, value], as Hibernate's pooled
+     * optimizer does. The first value of a fresh sequence, 1, reserves only itself; Hibernate
+     * then takes another nextval, and so does this loop when a block comes up short.
+     */
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + Task.ID_ALLOCATION_SIZE - 1) / Task.ID_ALLOCATION_SIZE;
+            List<Long> upperBounds = jdbcTemplate.queryForList(
+                "SELECT nextval('tasks_id_seq') FROM generate_series(1, :blocks)",
+                new MapSqlParameterSource("blocks", blocks),
+                Long.class);
+            for (Long upperBound : upperBounds) {
+                for (long id = Math.max(1, upperBound - Task.ID_ALLOCATION_SIZE + 1); id <= upperBound && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String filterClause(TaskFilter filter) {
+        StringBuilder clause = new StringBuilder();
+        if (filter.status() != null) {
+            clause.append("AND status = :status ");
+        }
+        if (filter.priority() != null) {
+            clause.append("AND priority = :priority ");
+        }
+        if (filter.userId() != null) {
+            clause.append("AND user_id = :userId ");
+        }
+        return clause.toString();
+    }
+
+    private static MapSqlParameterSource filterParams(TaskFilter filter) {
+        return new MapSqlParameterSource()
+            .addValue("status", filter.status() != null ? filter.status().name() : null)
+            .addValue("priority", filter.priority() != null ? filter.priority().name() : null)
+            .addValue("userId", filter.userId());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private MapSqlParameterSource claimParams(String ownerId, LocalDateTime now, LocalDateTime leaseExpiresAt) {
+        return new MapSqlParameterSource()
+            .addValue("ownerId", ownerId)
+            .addValue("now", now)
+            .addValue("leaseExpiresAt", leaseExpiresAt);
+    }
+}
@@ -0,0 +1,22 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.Task;
+
+import java.time.LocalDateTime;
+
+public record TaskStateUpdate(
+    Long id,
+    Task.TaskStatus status,
+    LocalDateTime completedTime,
+    LocalDateTime updatedAt
+) {
+    public static TaskStateUpdate of(Task task) {
+        return new TaskStateUpdate(task.getId(), task.getStatus(), task.getCompletedTime(), LocalDateTime.now());
+    }
+
+    public void applyTo(Task task) {
+        task.setStatus(status);
+        task.setCompletedTime(completedTime);
+        task.setUpdatedAt(updatedAt);
+    }
+}
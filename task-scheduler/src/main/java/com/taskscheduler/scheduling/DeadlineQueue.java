@@ -0,0 +1,273 @@
+package com.taskscheduler.scheduling;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.model.Task.TaskPriority;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Earliest-deadline-first ready queue. A task without a deadline gets an implicit one, its
+ * queueing time plus the relative deadline configured for its priority, so priorities
+ * still order undated work and no task waits forever behind dated ones. Ties go to the
+ * higher priority, then to the earlier arrival.
+ *
+ * Each user has their own {@link IndexedLongHeap} of task ids and users are ordered by the
+ * deadline of their head task, so a user held back by the {@link QuotaGate} costs one skip
+ * per poll rather than a walk past all of their tasks, and a single task is removed or
+ * re-keyed in O(log n). Only created under the EDF dispatch policy.
+ */
+@Component
+@ConditionalOnProperty(name = "scheduler.dispatch-policy", havingValue = "EDF")
+public class DeadlineQueue implements ReadyQueue {
+    private static final long DEFAULT_RELATIVE_DEADLINE_MS = 3_600_000;
+    private static final int PRIORITY_SHIFT = 56;
+    private static final int HIGHEST_PRIORITY = TaskPriority.values().length - 1;
+
+    // Arrival sequence numbers are unique, so heads never compare equal across users
+    private static final Comparator<UserHeap> BY_HEAD = Comparator
+        .comparingLong((UserHeap heap) -> heap.order.peekKey())
+        .thenComparingLong(heap -> heap.order.peekTie());
+
+    private final EnumMap<TaskPriority, Long> relativeDeadlines = new EnumMap<>(TaskPriority.class);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, UserHeap> heaps = new HashMap<>();
+    private final TreeSet<UserHeap> byHead = new TreeSet<>(BY_HEAD);
+    private final Map<Long, UserCounters> users = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile QuotaGate quotaGate = QuotaGate.UNLIMITED;
+    private long sequence;
+
+    @Value("${scheduler.deadlines.defaults:LOW:3600000,MEDIUM:600000,HIGH:120000,CRITICAL:30000}")
+    private String defaultDeadlines;
+
+    @PostConstruct
+    public void init() {
+        for (String pair : defaultDeadlines.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid default deadline: " + pair);
+            }
+            relativeDeadlines.put(TaskPriority.valueOf(parts[0].trim()), Long.parseLong(parts[1].trim()));
+        }
+    }
+
+    @Override
+    public void setQuotaGate(QuotaGate quotaGate) {
+        this.quotaGate = quotaGate;
+    }
+
+    @Override
+    public void offer(Task task) {
+        long userId = ReadyQueue.userIdOf(task);
+        // Not used for ordering here, but lets the gate load the user's quota outside the lock
+        quotaGate.weight(userId);
+        long now = System.currentTimeMillis();
+        long enqueuedAt = System.nanoTime();
+        lock.lock();
+        try {
+            // A re-offered task keeps its place in arrival order and the base of its implicit deadline
+            Entry previous = detach(task.getId());
+            long queuedAtMillis = previous != null ? previous.queuedAtMillis : now;
+            long deadline = task.getDeadline() != null
+                ? task.getDeadline().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : queuedAtMillis + relativeDeadlines.getOrDefault(task.getPriority(), DEFAULT_RELATIVE_DEADLINE_MS);
+            long arrival = previous != null ? previous.sequence : sequence++;
+            long tie = ((long) (HIGHEST_PRIORITY - task.getPriority().ordinal()) << PRIORITY_SHIFT) | arrival;
+            attach(new Entry(task, userId, deadline, tie, arrival, queuedAtMillis,
+                previous != null ? previous.enqueuedAt : enqueuedAt));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task poll() {
+        long now = System.nanoTime();
+        lock.lock();
+        List<UserHeap> gated = new ArrayList<>();
+        try {
+            UserHeap heap;
+            while ((heap = byHead.pollFirst()) != null) {
+                long taskId = heap.order.peek();
+                if (!quotaGate.tryAcquire(heap.userId, taskId)) {
+                    gated.add(heap);
+                    continue;
+                }
+                heap.order.poll();
+                Entry entry = entries.remove(taskId);
+                if (heap.order.isEmpty()) {
+                    heaps.remove(heap.userId);
+                } else {
+                    byHead.add(heap);
+                }
+                users.get(heap.userId).recordDequeue(now - entry.enqueuedAt);
+                return entry.task;
+            }
+            return null;
+        } finally {
+            byHead.addAll(gated);
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> drain() {
+        lock.lock();
+        try {
+            List<Task> drained = new ArrayList<>(entries.size());
+            entries.values().forEach(entry -> drained.add(entry.task));
+            entries.clear();
+            heaps.clear();
+            byHead.clear();
+            users.values().forEach(counters -> counters.queued = 0);
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(long taskId) {
+        lock.lock();
+        try {
+            return detach(taskId) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(long taskId) {
+        lock.lock();
+        try {
+            return entries.containsKey(taskId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<Task> filter) {
+        return !removeMatching(filter).isEmpty();
+    }
+
+    @Override
+    public List<Task> removeMatching(Predicate<Task> filter) {
+        lock.lock();
+        try {
+            List<Task> removed = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                if (filter.test(entry.task)) {
+                    removed.add(entry.task);
+                }
+            }
+            removed.forEach(task -> detach(task.getId()));
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<UserQueueStats> userStats() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            List<UserQueueStats> stats = new ArrayList<>(users.size());
+            users.forEach((userId, counters) -> {
+                UserHeap heap = heaps.get(userId);
+                long[] oldest = {now};
+                if (heap != null) {
+                    heap.order.forEach(taskId -> oldest[0] = Math.min(oldest[0], entries.get(taskId).enqueuedAt));
+                }
+                stats.add(counters.toStats(userId, now - oldest[0]));
+            });
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void attach(Entry entry) {
+        long taskId = entry.task.getId();
+        entries.put(taskId, entry);
+        UserHeap heap = heaps.computeIfAbsent(entry.userId, UserHeap::new);
+        // Re-keyed in the set whenever its head may change
+        if (!heap.order.isEmpty()) {
+            byHead.remove(heap);
+        }
+        heap.order.offer(taskId, entry.deadlineMillis, entry.tie);
+        byHead.add(heap);
+        users.computeIfAbsent(entry.userId, id -> new UserCounters()).queued++;
+    }
+
+    private Entry detach(long taskId) {
+        Entry entry = entries.remove(taskId);
+        if (entry == null) {
+            return null;
+        }
+        UserHeap heap = heaps.get(entry.userId);
+        byHead.remove(heap);
+        heap.order.remove(taskId);
+        if (heap.order.isEmpty()) {
+            heaps.remove(entry.userId);
+        } else {
+            byHead.add(heap);
+        }
+        users.get(entry.userId).queued--;
+        return entry;
+    }
+
+    private static final class Entry {
+        final Task task;
+        final long userId;
+        final long deadlineMillis;
+        // Priority (highest first) above the arrival sequence
+        final long tie;
+        final long sequence;
+        final long queuedAtMillis;
+        final long enqueuedAt;
+
+        Entry(Task task, long userId, long deadlineMillis, long tie, long sequence, long queuedAtMillis, long enqueuedAt) {
+            this.task = task;
+            this.userId = userId;
+            this.deadlineMillis = deadlineMillis;
+            this.tie = tie;
+            this.sequence = sequence;
+            this.queuedAtMillis = queuedAtMillis;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private static final class UserHeap {
+        final IndexedLongHeap order = new IndexedLongHeap();
+        final long userId;
+
+        UserHeap(long userId) {
+            this.userId = userId;
+        }
+    }
+}
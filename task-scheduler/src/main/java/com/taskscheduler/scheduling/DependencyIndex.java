@@ -0,0 +1,155 @@
+package com.taskscheduler.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory dependency DAG: reverse adjacency from parent to waiting children plus a
+ * counter of unfinished parents per child. Children whose timer fires while still
+ * blocked are parked here and released to the ready handler as soon as their last
+ * parent completes, without touching the database. A parent that fails or is cancelled
+ * takes its children with it: they can never be claimed, so they and their own
+ * descendants leave the index and go to the unreachable handler to be failed.
+ */
+@Component
+public class DependencyIndex {
+    private final ConcurrentHashMap<Long, Set<Long>> children = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> unfinishedParents = new ConcurrentHashMap<>();
+    private final Set<Long> parked = ConcurrentHashMap.newKeySet();
+
+    private volatile Consumer<List<Long>> readyHandler = ids -> { };
+    private volatile Consumer<List<Long>> unreachableHandler = ids -> { };
+
+    public void setReadyHandler(Consumer<List<Long>> readyHandler) {
+        this.readyHandler = readyHandler;
+    }
+
+    public void setUnreachableHandler(Consumer<List<Long>> unreachableHandler) {
+        this.unreachableHandler = unreachableHandler;
+    }
+
+    /**
+     * Records that {@code taskId} waits on {@code parentId}. Idempotent, so the reconcile
+     * sweep can re-register edges it already knows; a completed parent resolves the edge.
+     */
+    public void register(Long taskId, Long parentId, boolean parentCompleted) {
+        if (parentId == null) {
+            return;
+        }
+        if (parentCompleted) {
+            resolve(taskId, parentId);
+            return;
+        }
+        if (children.computeIfAbsent(parentId, id -> ConcurrentHashMap.newKeySet()).add(taskId)) {
+            unfinishedParents.computeIfAbsent(taskId, id -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    public boolean hasDependents(Long parentId) {
+        Set<Long> waiting = children.get(parentId);
+        return waiting != null && !waiting.isEmpty();
+    }
+
+    public boolean isBlocked(Long taskId) {
+        AtomicInteger count = unfinishedParents.get(taskId);
+        return count != null && count.get() > 0;
+    }
+
+    /**
+     * Parks a due task until its parents complete.
+     *
+     * @return false if the task is not blocked and may be dispatched now
+     */
+    public boolean park(Long taskId) {
+        if (!isBlocked(taskId)) {
+            return false;
+        }
+        parked.add(taskId);
+        // The last parent may have completed between the check and the add
+        return isBlocked(taskId) || !parked.remove(taskId);
+    }
+
+    public void onCompleted(Long parentId) {
+        Set<Long> waiting = children.remove(parentId);
+        if (waiting == null) {
+            return;
+        }
+
+        List<Long> ready = new ArrayList<>();
+        for (Long childId : waiting) {
+            if (decrement(childId) && parked.remove(childId)) {
+                ready.add(childId);
+            }
+        }
+        if (!ready.isEmpty()) {
+            readyHandler.accept(ready);
+        }
+    }
+
+    // For a parent that failed or was cancelled; walks the tree iteratively so long chains cannot overflow the stack
+    public void onTerminated(Long parentId) {
+        List<Long> unreachable = new ArrayList<>();
+        ArrayDeque<Long> ended = new ArrayDeque<>();
+        ended.add(parentId);
+        while (!ended.isEmpty()) {
+            Set<Long> waiting = children.remove(ended.poll());
+            if (waiting == null) {
+                continue;
+            }
+            for (Long childId : waiting) {
+                unfinishedParents.remove(childId);
+                parked.remove(childId);
+                unreachable.add(childId);
+                ended.add(childId);
+            }
+        }
+        if (!unreachable.isEmpty()) {
+            unreachableHandler.accept(unreachable);
+        }
+    }
+
+    public void remove(Long taskId) {
+        unfinishedParents.remove(taskId);
+        parked.remove(taskId);
+    }
+
+    // Unresolved edges as (child, parent) pairs, weakly consistent like the maps behind them
+    public void forEachEdge(SchedulerSnapshot.LongPairConsumer consumer) {
+        children.forEach((parentId, waiting) -> waiting.forEach(childId -> consumer.accept(childId, parentId)));
+    }
+
+    public void forEachParked(LongConsumer consumer) {
+        parked.forEach(consumer::accept);
+    }
+
+    public int size() {
+        return unfinishedParents.size();
+    }
+
+    private void resolve(Long taskId, Long parentId) {
+        Set<Long> waiting = children.get(parentId);
+        if (waiting != null && waiting.remove(taskId)) {
+            if (decrement(taskId) && parked.remove(taskId)) {
+                readyHandler.accept(List.of(taskId));
+            }
+        }
+    }
+
+    // Returns true when the child has no unfinished parents left
+    private boolean decrement(Long childId) {
+        AtomicInteger count = unfinishedParents.get(childId);
+        if (count == null || count.decrementAndGet() <= 0) {
+            unfinishedParents.remove(childId);
+            return true;
+        }
+        return false;
+    }
+}
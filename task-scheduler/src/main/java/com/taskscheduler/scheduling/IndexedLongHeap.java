@@ -0,0 +1,243 @@
+package com.taskscheduler.scheduling;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * Binary min-heap of primitive ids ordered by a (key, tie) pair of longs, with an
+ * open-addressing index from id to heap slot. Offering an id that is already present
+ * re-keys it in place, and any id can be removed, both in O(log n) without scanning the
+ * heap or boxing. Not thread-safe; callers serialize access.
+ */
+final class IndexedLongHeap {
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] ids;
+    private long[] keys;
+    private long[] ties;
+    private int size;
+
+    // id -> heap slot, linear probing, kept at most half full
+    private long[] indexIds;
+    private int[] indexSlots;
+
+    IndexedLongHeap() {
+        clear();
+    }
+
+    /**
+     * @return true if the id was added, false if it was already present and has been re-keyed
+     */
+    boolean offer(long id, long key, long tie) {
+        if (id == EMPTY) {
+            throw new IllegalArgumentException("Reserved id " + id);
+        }
+        int slot = slotOf(id);
+        if (slot >= 0) {
+            keys[slot] = key;
+            ties[slot] = tie;
+            if (!siftUp(slot)) {
+                siftDown(slot);
+            }
+            return false;
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            ties = Arrays.copyOf(ties, capacity);
+        }
+        if ((size + 1) * 2 > indexIds.length) {
+            rehash(indexIds.length * 2);
+        }
+        place(size, id, key, tie);
+        siftUp(size++);
+        return true;
+    }
+
+    boolean remove(long id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    boolean contains(long id) {
+        return slotOf(id) >= 0;
+    }
+
+    long peek() {
+        requireNotEmpty();
+        return ids[0];
+    }
+
+    long peekKey() {
+        requireNotEmpty();
+        return keys[0];
+    }
+
+    long peekTie() {
+        requireNotEmpty();
+        return ties[0];
+    }
+
+    long poll() {
+        long id = peek();
+        removeAt(0);
+        return id;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    // In heap order, not sorted
+    void forEach(LongConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(ids[i]);
+        }
+    }
+
+    void clear() {
+        ids = new long[INITIAL_CAPACITY];
+        keys = new long[INITIAL_CAPACITY];
+        ties = new long[INITIAL_CAPACITY];
+        size = 0;
+        indexIds = new long[INITIAL_CAPACITY * 2];
+        Arrays.fill(indexIds, EMPTY);
+        indexSlots = new int[INITIAL_CAPACITY * 2];
+    }
+
+    private void removeAt(int slot) {
+        indexRemove(ids[slot]);
+        int last = --size;
+        if (slot != last) {
+            place(slot, ids[last], keys[last], ties[last]);
+            if (!siftUp(slot)) {
+                siftDown(slot);
+            }
+        }
+    }
+
+    // Returns true if the entry moved
+    private boolean siftUp(int slot) {
+        long id = ids[slot];
+        long key = keys[slot];
+        long tie = ties[slot];
+        int start = slot;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!less(key, tie, keys[parent], ties[parent])) {
+                break;
+            }
+            place(slot, ids[parent], keys[parent], ties[parent]);
+            slot = parent;
+        }
+        if (slot != start) {
+            place(slot, id, key, tie);
+        }
+        return slot != start;
+    }
+
+    private void siftDown(int slot) {
+        long id = ids[slot];
+        long key = keys[slot];
+        long tie = ties[slot];
+        int start = slot;
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && less(keys[right], ties[right], keys[child], ties[child])) {
+                child = right;
+            }
+            if (!less(keys[child], ties[child], key, tie)) {
+                break;
+            }
+            place(slot, ids[child], keys[child], ties[child]);
+            slot = child;
+        }
+        if (slot != start) {
+            place(slot, id, key, tie);
+        }
+    }
+
+    private void place(int slot, long id, long key, long tie) {
+        ids[slot] = id;
+        keys[slot] = key;
+        ties[slot] = tie;
+        indexPut(id, slot);
+    }
+
+    private static boolean less(long key, long tie, long otherKey, long otherTie) {
+        return key < otherKey || (key == otherKey && tie < otherTie);
+    }
+
+    private void requireNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+    }
+
+    private int slotOf(long id) {
+        int mask = indexIds.length - 1;
+        for (int i = home(id, mask); indexIds[i] != EMPTY; i = (i + 1) & mask) {
+            if (indexIds[i] == id) {
+                return indexSlots[i];
+            }
+        }
+        return -1;
+    }
+
+    private void indexPut(long id, int slot) {
+        int mask = indexIds.length - 1;
+        int i = home(id, mask);
+        while (indexIds[i] != EMPTY && indexIds[i] != id) {
+            i = (i + 1) & mask;
+        }
+        indexIds[i] = id;
+        indexSlots[i] = slot;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void indexRemove(long id) {
+        int mask = indexIds.length - 1;
+        int hole = home(id, mask);
+        while (indexIds[hole] != id) {
+            hole = (hole + 1) & mask;
+        }
+        for (int i = (hole + 1) & mask; indexIds[i] != EMPTY; i = (i + 1) & mask) {
+            int home = home(indexIds[i], mask);
+            // The entry at i may fill the hole unless its home lies cyclically in (hole, i]
+            boolean reachable = hole <= i ? (home > hole && home <= i) : (home > hole || home <= i);
+            if (!reachable) {
+                indexIds[hole] = indexIds[i];
+                indexSlots[hole] = indexSlots[i];
+                hole = i;
+            }
+        }
+        indexIds[hole] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        indexIds = new long[capacity];
+        Arrays.fill(indexIds, EMPTY);
+        indexSlots = new int[capacity];
+        for (int slot = 0; slot < size; slot++) {
+            indexPut(ids[slot], slot);
+        }
+    }
+
+    private static int home(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
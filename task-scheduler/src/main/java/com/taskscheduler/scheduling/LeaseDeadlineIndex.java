@@ -0,0 +1,66 @@
+package com.taskscheduler.scheduling;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Lease deadlines of RUNNING tasks, ordered so the expiry sweep only looks at the head.
+ * Superseded heap entries are skipped lazily when they reach the head instead of being
+ * searched out on every update.
+ */
+@Component
+public class LeaseDeadlineIndex {
+    private final Map<Long, LocalDateTime> deadlines = new HashMap<>();
+    private final PriorityQueue<Deadline> byDeadline = new PriorityQueue<>();
+
+    public synchronized LocalDateTime get(Long taskId) {
+        return deadlines.get(taskId);
+    }
+
+    /**
+     * Replaces the whole index with a fresh read of the leases; tasks not listed are dropped.
+     */
+    public synchronized void replaceAll(Map<Long, LocalDateTime> leases) {
+        deadlines.clear();
+        byDeadline.clear();
+        leases.forEach(this::put);
+    }
+
+    /**
+     * Removes and returns the tasks whose deadline is at or before {@code now}.
+     */
+    public synchronized List<Long> pollExpired(LocalDateTime now) {
+        List<Long> expired = new ArrayList<>();
+        Deadline head;
+        while ((head = byDeadline.peek()) != null && !head.deadline().isAfter(now)) {
+            byDeadline.poll();
+            if (head.deadline().equals(deadlines.get(head.taskId()))) {
+                deadlines.remove(head.taskId());
+                expired.add(head.taskId());
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    private void put(Long taskId, LocalDateTime deadline) {
+        deadlines.put(taskId, deadline);
+        byDeadline.add(new Deadline(deadline, taskId));
+    }
+
+    private record Deadline(LocalDateTime deadline, long taskId) implements Comparable<Deadline> {
+        @Override
+        public int compareTo(Deadline other) {
+            return deadline.compareTo(other.deadline);
+        }
+    }
+}
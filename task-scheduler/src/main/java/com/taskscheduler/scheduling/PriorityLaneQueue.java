@@ -0,0 +1,512 @@
+package com.taskscheduler.scheduling;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.model.Task.TaskPriority;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Ready queue with one lane per {@link TaskPriority}. Lanes are drained by smooth
+ * weighted round-robin so lower priorities keep a guaranteed share, and a task that has
+ * waited longer than the aging threshold in its lane is promoted one lane up.
+ *
+ * Inside a lane every user has their own FIFO sub-queue, served by deficit round-robin
+ * in proportion to the user's weight, so one user's flood cannot starve the others at the
+ * same priority. The {@link QuotaGate} may hold back a user who is at their concurrency
+ * cap or out of dispatch tokens; their tasks wait while other users' tasks are served.
+ *
+ * Sub-queues are {@link IndexedLongHeap}s of task ids keyed by arrival sequence, so a
+ * single task is removed in O(log n) and re-offering a queued task does not duplicate it.
+ *
+ * Per-lane depth, promotions, oldest wait and a queue wait timer are bound to Micrometer,
+ * tagged by priority. Only created under the PRIORITY dispatch policy, the default.
+ */
+@Component
+@ConditionalOnProperty(name = "scheduler.dispatch-policy", havingValue = "PRIORITY", matchIfMissing = true)
+public class PriorityLaneQueue implements ReadyQueue, MeterBinder {
+    private static final TaskPriority[] LANES = TaskPriority.values();
+
+    private final EnumMap<TaskPriority, Lane> lanes = new EnumMap<>(TaskPriority.class);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, UserCounters> users = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile QuotaGate quotaGate = QuotaGate.UNLIMITED;
+    private long sequence;
+
+    @Value("${scheduler.lanes.weights:LOW:1,MEDIUM:2,HIGH:4,CRITICAL:8}")
+    private String laneWeights;
+
+    @Value("${scheduler.lanes.aging-ms:30000}")
+    private long agingMs;
+
+    @PostConstruct
+    public void init() {
+        Map<TaskPriority, Integer> weights = parseWeights(laneWeights);
+        for (TaskPriority priority : LANES) {
+            lanes.put(priority, new Lane(weights.getOrDefault(priority, 1)));
+        }
+    }
+
+    @Override
+    public void setQuotaGate(QuotaGate quotaGate) {
+        this.quotaGate = quotaGate;
+    }
+
+    @Override
+    public void offer(Task task) {
+        long userId = ReadyQueue.userIdOf(task);
+        // Resolved before locking, as it may load the user's quota
+        int weight = quotaGate.weight(userId);
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            long enqueuedAt = now;
+            Entry previous = entries.get(task.getId());
+            if (previous != null) {
+                previous.task = task;
+                if (previous.priority == task.getPriority() && previous.userId == userId) {
+                    // Keeps its place, including any promotion it has earned
+                    return;
+                }
+                detach(task.getId());
+                // A changed priority starts over at the back of its new lane, keeping its queueing time
+                enqueuedAt = previous.enqueuedAt;
+            }
+            Entry entry = new Entry(task, userId, enqueuedAt);
+            entry.laneEnteredAt = now;
+            attach(entry, weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task poll() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            promoteAged(now);
+
+            // Lanes whose every waiting user is held back by the quota gate sit this poll out
+            EnumSet<TaskPriority> gated = EnumSet.noneOf(TaskPriority.class);
+            while (true) {
+                Lane selected = null;
+                TaskPriority selectedPriority = null;
+                for (TaskPriority priority : LANES) {
+                    Lane lane = lanes.get(priority);
+                    if (lane.size == 0 || gated.contains(priority)) {
+                        continue;
+                    }
+                    // Ties go to the higher priority lane, which iterates later
+                    if (selected == null || lane.currentWeight + lane.weight >= selected.currentWeight + selected.weight) {
+                        selected = lane;
+                        selectedPriority = priority;
+                    }
+                }
+                if (selected == null) {
+                    return null;
+                }
+
+                Entry entry = selected.poll(quotaGate, entries);
+                if (entry == null) {
+                    gated.add(selectedPriority);
+                    continue;
+                }
+
+                int totalWeight = 0;
+                for (TaskPriority priority : LANES) {
+                    Lane lane = lanes.get(priority);
+                    if ((lane.size > 0 || lane == selected) && !gated.contains(priority)) {
+                        lane.currentWeight += lane.weight;
+                        totalWeight += lane.weight;
+                    }
+                }
+                selected.currentWeight -= totalWeight;
+
+                long waitNanos = now - entry.enqueuedAt;
+                selected.recordDequeue(waitNanos);
+                users.get(entry.userId).recordDequeue(waitNanos);
+                return entry.task;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> drain() {
+        lock.lock();
+        try {
+            List<Task> drained = new ArrayList<>(entries.size());
+            entries.values().forEach(entry -> drained.add(entry.task));
+            entries.clear();
+            lanes.values().forEach(Lane::clear);
+            users.values().forEach(counters -> counters.queued = 0);
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(long taskId) {
+        lock.lock();
+        try {
+            return detach(taskId) != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(long taskId) {
+        lock.lock();
+        try {
+            return entries.containsKey(taskId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeIf(Predicate<Task> filter) {
+        return !removeMatching(filter).isEmpty();
+    }
+
+    @Override
+    public List<Task> removeMatching(Predicate<Task> filter) {
+        lock.lock();
+        try {
+            List<Task> removed = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                if (filter.test(entry.task)) {
+                    removed.add(entry.task);
+                }
+            }
+            removed.forEach(task -> detach(task.getId()));
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<LaneStats> stats() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            List<LaneStats> stats = new ArrayList<>(LANES.length);
+            for (TaskPriority priority : LANES) {
+                Lane lane = lanes.get(priority);
+                long oldest = lane.oldestEnqueuedAt(now, entries);
+                stats.add(new LaneStats(
+                    priority,
+                    lane.weight,
+                    lane.size,
+                    lane.dequeued,
+                    lane.promoted,
+                    lane.dequeued == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(lane.totalWaitNanos / lane.dequeued),
+                    TimeUnit.NANOSECONDS.toMillis(lane.maxWaitNanos),
+                    TimeUnit.NANOSECONDS.toMillis(now - oldest)
+                ));
+            }
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TaskPriority priority : LANES) {
+            Lane lane = lanes.get(priority);
+            Gauge.builder("tasks.lane.depth", lane, l -> locked(() -> l.size))
+                .description("Tasks waiting in the lane")
+                .tag("priority", priority.name())
+                .register(registry);
+            FunctionCounter.builder("tasks.lane.promoted", lane, l -> locked(() -> l.promoted))
+                .description("Tasks promoted out of the lane after waiting past the aging threshold")
+                .tag("priority", priority.name())
+                .register(registry);
+            Gauge.builder("tasks.lane.oldest.wait", lane, l -> locked(() -> {
+                    long now = System.nanoTime();
+                    return now - l.oldestEnqueuedAt(now, entries);
+                }) / 1e9)
+                .description("Queueing time of the longest-waiting task in the lane")
+                .tag("priority", priority.name())
+                .baseUnit("seconds")
+                .register(registry);
+            Timer waitTimer = Timer.builder("tasks.lane.wait")
+                .description("Queueing time of tasks taken from the lane")
+                .tag("priority", priority.name())
+                .publishPercentileHistogram()
+                .register(registry);
+            lock.lock();
+            try {
+                lane.waitTimer = waitTimer;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public List<UserQueueStats> userStats() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            List<UserQueueStats> stats = new ArrayList<>(users.size());
+            users.forEach((userId, counters) -> {
+                long oldest = now;
+                for (Lane lane : lanes.values()) {
+                    UserQueue queue = lane.byUser.get(userId);
+                    if (queue != null) {
+                        oldest = Math.min(oldest, entries.get(queue.order.peek()).enqueuedAt);
+                    }
+                }
+                stats.add(counters.toStats(userId, now - oldest));
+            });
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double locked(LongSupplier read) {
+        lock.lock();
+        try {
+            return read.getAsLong();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Oldest entries sit at the head of each user's sub-queue, so only heads need checking
+    private void promoteAged(long now) {
+        long agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMs);
+        if (agingNanos <= 0) {
+            return;
+        }
+        for (int i = LANES.length - 2; i >= 0; i--) {
+            Lane lane = lanes.get(LANES[i]);
+            Lane upper = lanes.get(LANES[i + 1]);
+            Iterator<UserQueue> queues = lane.active.iterator();
+            while (queues.hasNext()) {
+                UserQueue queue = queues.next();
+                Entry entry;
+                while (!queue.order.isEmpty()
+                        && now - (entry = entries.get(queue.order.peek())).laneEnteredAt >= agingNanos) {
+                    queue.order.poll();
+                    lane.size--;
+                    entry.laneEnteredAt = now;
+                    entry.lane = LANES[i + 1];
+                    entry.sequence = sequence++;
+                    upper.add(entry, queue.weight);
+                    lane.promoted++;
+                }
+                if (queue.order.isEmpty()) {
+                    queues.remove();
+                    lane.byUser.remove(queue.userId);
+                }
+            }
+        }
+    }
+
+    private void attach(Entry entry, int weight) {
+        entry.sequence = sequence++;
+        entries.put(entry.task.getId(), entry);
+        lanes.get(entry.lane).add(entry, weight);
+        users.computeIfAbsent(entry.userId, id -> new UserCounters()).queued++;
+    }
+
+    private Entry detach(long taskId) {
+        Entry entry = entries.remove(taskId);
+        if (entry == null) {
+            return null;
+        }
+        lanes.get(entry.lane).remove(entry);
+        users.get(entry.userId).queued--;
+        return entry;
+    }
+
+    private static Map<TaskPriority, Integer> parseWeights(String spec) {
+        Map<TaskPriority, Integer> weights = new EnumMap<>(TaskPriority.class);
+        for (String pair : spec.split(",")) {
+            String[] parts = pair.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid lane weight: " + pair);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Lane weight must be positive: " + pair);
+            }
+            weights.put(TaskPriority.valueOf(parts[0].trim()), weight);
+        }
+        return weights;
+    }
+
+    public record LaneStats(
+        TaskPriority priority,
+        int weight,
+        int depth,
+        long dequeued,
+        long promoted,
+        long avgWaitMillis,
+        long maxWaitMillis,
+        long oldestWaitMillis
+    ) {
+    }
+
+    private static final class Entry {
+        Task task;
+        final TaskPriority priority;
+        final long userId;
+        final long enqueuedAt;
+        long laneEnteredAt;
+        // Where it currently waits: the lane (its priority, or higher once promoted) and its key in the user's sub-queue
+        TaskPriority lane;
+        long sequence;
+
+        Entry(Task task, long userId, long enqueuedAt) {
+            this.task = task;
+            this.priority = task.getPriority();
+            this.userId = userId;
+            this.enqueuedAt = enqueuedAt;
+            this.laneEnteredAt = enqueuedAt;
+            this.lane = priority;
+        }
+    }
+
+    private static final class UserQueue {
+        final IndexedLongHeap order = new IndexedLongHeap();
+        final long userId;
+        int weight;
+        int deficit;
+
+        UserQueue(long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class Lane {
+        final Map<Long, UserQueue> byUser = new HashMap<>();
+        // Users with waiting tasks in DRR order; the head is the user whose turn it is
+        final ArrayDeque<UserQueue> active = new ArrayDeque<>();
+        final int weight;
+        int size;
+        int currentWeight;
+        long dequeued;
+        long promoted;
+        long totalWaitNanos;
+        long maxWaitNanos;
+        // Null until bound to a registry
+        Timer waitTimer;
+
+        Lane(int weight) {
+            this.weight = weight;
+        }
+
+        void add(Entry entry, int userWeight) {
+            UserQueue queue = byUser.get(entry.userId);
+            if (queue == null) {
+                queue = new UserQueue(entry.userId);
+                byUser.put(entry.userId, queue);
+                active.addLast(queue);
+            }
+            queue.weight = userWeight;
+            queue.order.offer(entry.task.getId(), entry.sequence, 0);
+            size++;
+        }
+
+        // Removing a user's last task here is linear in the lane's active users, not its tasks
+        void remove(Entry entry) {
+            UserQueue queue = byUser.get(entry.userId);
+            queue.order.remove(entry.task.getId());
+            size--;
+            if (queue.order.isEmpty()) {
+                active.remove(queue);
+                byUser.remove(entry.userId);
+            }
+        }
+
+        // A user keeps the turn until they have taken their weight in tasks; a gated user forfeits it
+        Entry poll(QuotaGate gate, Map<Long, Entry> entries) {
+            for (int visited = 0, count = active.size(); visited < count; visited++) {
+                UserQueue queue = active.peekFirst();
+                if (queue.deficit <= 0) {
+                    queue.deficit += queue.weight;
+                }
+                long taskId = queue.order.peek();
+                if (!gate.tryAcquire(queue.userId, taskId)) {
+                    queue.deficit = 0;
+                    active.addLast(active.pollFirst());
+                    continue;
+                }
+                queue.order.poll();
+                Entry entry = entries.remove(taskId);
+                queue.deficit--;
+                size--;
+                if (queue.order.isEmpty()) {
+                    active.pollFirst();
+                    byUser.remove(queue.userId);
+                } else if (queue.deficit <= 0) {
+                    active.addLast(active.pollFirst());
+                }
+                return entry;
+            }
+            return null;
+        }
+
+        long oldestEnqueuedAt(long now, Map<Long, Entry> entries) {
+            long oldest = now;
+            for (UserQueue queue : active) {
+                oldest = Math.min(oldest, entries.get(queue.order.peek()).enqueuedAt);
+            }
+            return oldest;
+        }
+
+        void clear() {
+            byUser.clear();
+            active.clear();
+            size = 0;
+        }
+
+        void recordDequeue(long waitNanos) {
+            dequeued++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            if (waitTimer != null) {
+                waitTimer.record(waitNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
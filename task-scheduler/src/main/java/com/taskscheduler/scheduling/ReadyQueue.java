@@ -0,0 +1,87 @@
+package com.taskscheduler.scheduling;
+
+import com.taskscheduler.model.Task;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Claimed tasks waiting for an executor slot. {@code scheduler.dispatch-policy} selects the
+ * implementation: {@link PriorityLaneQueue} (weighted priority lanes, PRIORITY) or
+ * {@link DeadlineQueue} (earliest deadline first, EDF); only the selected one is created.
+ * Both consult the same {@link QuotaGate}.
+ */
+public interface ReadyQueue {
+    // Queue key of tasks without an assigned user; they share one user's quota
+    long UNASSIGNED = 0L;
+
+    // Idempotent per task id: offering a queued task replaces it and re-keys it for any new ordering fields
+    void offer(Task task);
+
+    default void addAll(Collection<Task> tasks) {
+        tasks.forEach(this::offer);
+    }
+
+    // Next task whose user the quota gate admits, or null
+    Task poll();
+
+    // Removes every queued task regardless of quotas, e.g. to hand claims back on shutdown
+    List<Task> drain();
+
+    // O(log n) in the task's sub-queue
+    boolean remove(long taskId);
+
+    boolean contains(long taskId);
+
+    // Scans every queued task; prefer remove(taskId) for a single task
+    boolean removeIf(Predicate<Task> filter);
+
+    // Like removeIf, but returns the removed tasks
+    List<Task> removeMatching(Predicate<Task> filter);
+
+    int size();
+
+    void setQuotaGate(QuotaGate quotaGate);
+
+    List<UserQueueStats> userStats();
+
+    static long userIdOf(Task task) {
+        return task.getAssignedUser() != null && task.getAssignedUser().getId() != null
+            ? task.getAssignedUser().getId()
+            : UNASSIGNED;
+    }
+
+    /**
+     * Per-user dispatch limits consulted by {@link #poll()}.
+     */
+    interface QuotaGate {
+        QuotaGate UNLIMITED = new QuotaGate() {
+            @Override
+            public int weight(long userId) {
+                return 1;
+            }
+
+            @Override
+            public boolean tryAcquire(long userId, Long taskId) {
+                return true;
+            }
+        };
+
+        // Fair-share weight of the user, asked for every offered task outside the queue lock, so it may load the quota
+        int weight(long userId);
+
+        // Whether the user may start the task now, reserving their share if so; called under the lock
+        boolean tryAcquire(long userId, Long taskId);
+    }
+
+    record UserQueueStats(
+        long userId,
+        int depth,
+        long dequeued,
+        long avgWaitMillis,
+        long maxWaitMillis,
+        long oldestWaitMillis
+    ) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.taskscheduler.scheduling;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary image of the scheduler's in-memory state: armed timers, unresolved dependency
+ * edges and the tasks the writing instance had claimed. Sections are runs of fixed-width
+ * longs; their lengths go in a trailer, so writers can stream weakly consistent views
+ * without counting first, and a CRC32 over the rest of the file rejects torn or corrupt
+ * files instead of half-loading them.
+ *
+ * Files are written under a temporary name and moved into place, and read through a
+ * read-only mapping.
+ */
+public final class SchedulerSnapshot {
+    private static final int MAGIC = 0x54534E50;
+    private static final int VERSION = 1;
+    // Section counts plus the checksum
+    private static final int TRAILER_BYTES = 3 * Integer.BYTES + Long.BYTES;
+
+    private final long capturedAtMillis;
+    private final String instanceId;
+    private final ByteBuffer timers;
+    private final ByteBuffer edges;
+    private final ByteBuffer claimed;
+
+    private SchedulerSnapshot(long capturedAtMillis, String instanceId, ByteBuffer timers, ByteBuffer edges, ByteBuffer claimed) {
+        this.capturedAtMillis = capturedAtMillis;
+        this.instanceId = instanceId;
+        this.timers = timers;
+        this.edges = edges;
+        this.claimed = claimed;
+    }
+
+    @FunctionalInterface
+    public interface LongPairConsumer {
+        void accept(long first, long second);
+    }
+
+    /**
+     * @param timers receives a sink for (task id, expiration epoch millis) pairs
+     * @param edges receives a sink for (task id, unfinished parent id) pairs
+     */
+    public static void write(Path file, long capturedAtMillis, String instanceId,
+                             Consumer<LongPairConsumer> timers, Consumer<LongPairConsumer> edges,
+                             Collection<Long> claimed) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc))) {
+            byte[] instance = instanceId.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(capturedAtMillis);
+            out.writeInt(instance.length);
+            out.write(instance);
+
+            int timerCount = writePairs(out, timers);
+            int edgeCount = writePairs(out, edges);
+            int claimedCount = 0;
+            for (Long taskId : claimed) {
+                out.writeLong(taskId);
+                claimedCount++;
+            }
+
+            out.writeInt(timerCount);
+            out.writeInt(edgeCount);
+            out.writeInt(claimedCount);
+            out.flush();
+            out.writeLong(crc.getValue());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static SchedulerSnapshot read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int length = buffer.limit();
+        if (length < 4 * Integer.BYTES + Long.BYTES + TRAILER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a scheduler snapshot: " + file);
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unsupported scheduler snapshot version " + buffer.getInt(Integer.BYTES));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, length - Long.BYTES));
+        if (crc.getValue() != buffer.getLong(length - Long.BYTES)) {
+            throw new IOException("Scheduler snapshot checksum mismatch: " + file);
+        }
+
+        int trailer = length - TRAILER_BYTES;
+        long timerCount = buffer.getInt(trailer);
+        long edgeCount = buffer.getInt(trailer + Integer.BYTES);
+        long claimedCount = buffer.getInt(trailer + 2 * Integer.BYTES);
+
+        long capturedAt = buffer.getLong(2 * Integer.BYTES);
+        int instanceLength = buffer.getInt(2 * Integer.BYTES + Long.BYTES);
+        int offset = 3 * Integer.BYTES + Long.BYTES;
+        byte[] instance = new byte[instanceLength];
+        buffer.get(offset, instance);
+        offset += instanceLength;
+
+        int timerBytes = Math.toIntExact(timerCount * 2 * Long.BYTES);
+        int edgeBytes = Math.toIntExact(edgeCount * 2 * Long.BYTES);
+        int claimedBytes = Math.toIntExact(claimedCount * Long.BYTES);
+        if (offset + timerBytes + edgeBytes + claimedBytes != trailer) {
+            throw new IOException("Scheduler snapshot sections do not match its trailer: " + file);
+        }
+        return new SchedulerSnapshot(
+            capturedAt,
+            new String(instance, StandardCharsets.UTF_8),
+            buffer.slice(offset, timerBytes),
+            buffer.slice(offset + timerBytes, edgeBytes),
+            buffer.slice(offset + timerBytes + edgeBytes, claimedBytes));
+    }
+
+    public long capturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public int timerCount() {
+        return timers.limit() / (2 * Long.BYTES);
+    }
+
+    public void forEachTimer(LongPairConsumer consumer) {
+        forEachPair(timers, consumer);
+    }
+
+    public void forEachEdge(LongPairConsumer consumer) {
+        forEachPair(edges, consumer);
+    }
+
+    public List<Long> claimed() {
+        List<Long> ids = new ArrayList<>(claimed.limit() / Long.BYTES);
+        for (int i = 0; i < claimed.limit(); i += Long.BYTES) {
+            ids.add(claimed.getLong(i));
+        }
+        return ids;
+    }
+
+    private static int writePairs(DataOutputStream out, Consumer<LongPairConsumer> source) throws IOException {
+        int[] count = new int[1];
+        try {
+            source.accept((first, second) -> {
+                try {
+                    out.writeLong(first);
+                    out.writeLong(second);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    private static void forEachPair(ByteBuffer pairs, LongPairConsumer consumer) {
+        for (int i = 0; i < pairs.limit(); i += 2 * Long.BYTES) {
+            consumer.accept(pairs.getLong(i), pairs.getLong(i + Long.BYTES));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.taskscheduler.scheduling;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Fires task ids at their scheduled time from an in-memory hierarchical timing wheel,
+ * replacing the per-second database poll for due tasks.
+ */
+@Slf4j
+@Component
+public class TaskTimer {
+    private static final long TICK_MS = 1;
+    private static final int WHEEL_SIZE = 64;
+
+    private final DelayQueue<TimerBucket> delayQueue = new DelayQueue<>();
+    private final ConcurrentHashMap<Long, TimerEntry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final TimingWheel wheel = new TimingWheel(TICK_MS, WHEEL_SIZE, System.currentTimeMillis(), delayQueue);
+
+    private volatile Consumer<List<Long>> dueHandler = ids -> { };
+    private volatile boolean running;
+    private Thread reaper;
+
+    public void setDueHandler(Consumer<List<Long>> dueHandler) {
+        this.dueHandler = dueHandler;
+    }
+
+    /**
+     * Arms (or re-arms) the timer for a task. Inside a transaction the entry is only
+     * added after commit so the due handler never sees uncommitted rows.
+     */
+    public void schedule(Long taskId, LocalDateTime scheduledTime) {
+        scheduleAll(List.of(taskId), scheduledTime);
+    }
+
+    public void scheduleAll(Collection<Long> taskIds, LocalDateTime scheduledTime) {
+        long expirationMs = scheduledTime == null
+            ? System.currentTimeMillis()
+            : scheduledTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    taskIds.forEach(taskId -> arm(taskId, expirationMs));
+                }
+            });
+        } else {
+            taskIds.forEach(taskId -> arm(taskId, expirationMs));
+        }
+    }
+
+    public void cancel(Long taskId) {
+        TimerEntry entry = entries.remove(taskId);
+        if (entry != null) {
+            entry.cancel();
+        }
+    }
+
+    // Re-arms a timer read back from a snapshot, due at the given epoch millis
+    public void restore(long taskId, long expirationMs) {
+        arm(taskId, expirationMs);
+    }
+
+    // Weakly consistent: timers armed or fired during the walk may or may not be seen
+    public void forEachArmed(SchedulerSnapshot.LongPairConsumer consumer) {
+        entries.values().forEach(entry -> consumer.accept(entry.taskId, entry.expirationMs));
+    }
+
+    public boolean contains(Long taskId) {
+        return entries.containsKey(taskId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        reaper = new Thread(this::runReaper, "TaskTimer-reaper");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (reaper != null) {
+            reaper.interrupt();
+        }
+    }
+
+    private void arm(long taskId, long expirationMs) {
+        TimerEntry entry = new TimerEntry(taskId, expirationMs);
+        TimerEntry previous = entries.put(taskId, entry);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        boolean added;
+        wheelLock.lock();
+        try {
+            added = wheel.add(entry);
+        } finally {
+            wheelLock.unlock();
+        }
+
+        if (!added) {
+            // Already due: park it in an expired bucket so the reaper picks it up immediately
+            TimerBucket expired = new TimerBucket();
+            expired.add(entry);
+            expired.setExpiration(expirationMs);
+            delayQueue.offer(expired);
+        }
+    }
+
+    private void runReaper() {
+        while (running) {
+            try {
+                TimerBucket bucket = delayQueue.poll(200, TimeUnit.MILLISECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+
+                List<Long> due = new ArrayList<>();
+                wheelLock.lock();
+                try {
+                    while (bucket != null) {
+                        wheel.advanceClock(bucket.getExpiration());
+                        bucket.flush(entry -> {
+                            if (!wheel.add(entry)) {
+                                expire(entry, due);
+                            }
+                        });
+                        bucket = delayQueue.poll();
+                    }
+                } finally {
+                    wheelLock.unlock();
+                }
+
+                if (!due.isEmpty()) {
+                    dueHandler.accept(due);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Task timer due handler failed", e);
+            }
+        }
+    }
+
+    private void expire(TimerEntry entry, List<Long> due) {
+        if (!entry.isCancelled() && entries.remove(entry.taskId, entry)) {
+            due.add(entry.taskId);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.taskscheduler.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+final class TimerBucket implements Delayed {
+    private final AtomicLong expirationMs = new AtomicLong(-1L);
+    private final List<TimerEntry> entries = new ArrayList<>();
+
+    synchronized void add(TimerEntry entry) {
+        entries.add(entry);
+    }
+
+    // Returns true when the bucket was empty and must be (re)queued on the delay queue
+    boolean setExpiration(long expiration) {
+        return expirationMs.getAndSet(expiration) != expiration;
+    }
+
+    long getExpiration() {
+        return expirationMs.get();
+    }
+
+    synchronized void flush(Consumer<TimerEntry> reinsert) {
+        List<TimerEntry> drained = new ArrayList<>(entries);
+        entries.clear();
+        expirationMs.set(-1L);
+        drained.forEach(reinsert);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        long delayMs = Math.max(getExpiration() - System.currentTimeMillis(), 0);
+        return unit.convert(delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getExpiration(), ((TimerBucket) other).getExpiration());
+    }
+}
@@ -0,0 +1,20 @@
+package com.taskscheduler.scheduling;
+
+final class TimerEntry {
+    final long taskId;
+    final long expirationMs;
+    private volatile boolean cancelled;
+
+    TimerEntry(long taskId, long expirationMs) {
+        this.taskId = taskId;
+        this.expirationMs = expirationMs;
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,67 @@
+package com.taskscheduler.scheduling;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * Hierarchical timing wheel: each level covers {@code tickMs * wheelSize} milliseconds
+ * and hands entries beyond its range to a lazily created overflow wheel whose tick is
+ * this wheel's whole interval. Buckets are driven by a shared {@link DelayQueue} so the
+ * clock only advances when a bucket actually expires.
+ * Not thread-safe; callers serialize access.
+ */
+final class TimingWheel {
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final TimerBucket[] buckets;
+    private final DelayQueue<TimerBucket> queue;
+    private long currentTimeMs;
+    private TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.currentTimeMs = startMs - (startMs % tickMs);
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket();
+        }
+    }
+
+    /**
+     * @return false if the entry is already due and must be fired by the caller
+     */
+    boolean add(TimerEntry entry) {
+        long expiration = entry.expirationMs;
+        if (entry.isCancelled()) {
+            return true;
+        }
+        if (expiration < currentTimeMs + tickMs) {
+            return false;
+        }
+        if (expiration < currentTimeMs + interval) {
+            long virtualId = expiration / tickMs;
+            TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel(interval, wheelSize, currentTimeMs, queue);
+        }
+        return overflowWheel.add(entry);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTimeMs + tickMs) {
+            currentTimeMs = timeMs - (timeMs % tickMs);
+            if (overflowWheel != null) {
+                overflowWheel.advanceClock(currentTimeMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskscheduler.scheduling;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-user depth and wait accounting shared by the ready queues; guarded by the owning queue's lock
+final class UserCounters {
+    int queued;
+    long dequeued;
+    long totalWaitNanos;
+    long maxWaitNanos;
+
+    void recordDequeue(long waitNanos) {
+        queued--;
+        dequeued++;
+        totalWaitNanos += waitNanos;
+        maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    ReadyQueue.UserQueueStats toStats(long userId, long oldestWaitNanos) {
+        return new ReadyQueue.UserQueueStats(
+            userId,
+            queued,
+            dequeued,
+            dequeued == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / dequeued),
+            TimeUnit.NANOSECONDS.toMillis(maxWaitNanos),
+            TimeUnit.NANOSECONDS.toMillis(oldestWaitNanos)
+        );
+    }
+}
@@ -0,0 +1,31 @@
+package com.taskscheduler.scheduling;
+
+import com.taskscheduler.model.User;
+
+/**
+ * A user's fair-share settings, resolved from the nullable quota columns on {@link User}:
+ * the DRR weight of their sub-queues, how many of their tasks may run at once, and a
+ * token bucket of {@code dispatchRate} tasks per second holding up to {@code dispatchBurst}.
+ */
+public record UserQuota(int weight, int maxConcurrent, double dispatchRate, int dispatchBurst) {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    public static UserQuota defaults(int weight) {
+        return new UserQuota(weight, UNLIMITED, 0, 0);
+    }
+
+    public static UserQuota of(User user, int defaultWeight) {
+        double rate = user.getDispatchRate() != null ? user.getDispatchRate() : 0;
+        int burst = user.getDispatchBurst() != null ? user.getDispatchBurst() : (int) Math.max(1, Math.ceil(rate));
+        return new UserQuota(
+            user.getShareWeight() != null ? user.getShareWeight() : defaultWeight,
+            user.getMaxConcurrentTasks() != null ? user.getMaxConcurrentTasks() : UNLIMITED,
+            rate,
+            burst
+        );
+    }
+
+    public boolean rateLimited() {
+        return dispatchRate > 0;
+    }
+}
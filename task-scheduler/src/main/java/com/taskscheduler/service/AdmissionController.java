@@ -0,0 +1,123 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.exception.AdmissionRejectedException;
+import com.taskscheduler.scheduling.ReadyQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards task submission and dispatch against a saturated executor. Submissions are
+ * rejected with a Retry-After estimate once the ready backlog is full, and dispatch only
+ * hands work to the launcher while it has free in-flight slots; every finished run frees
+ * a slot and wakes the dispatcher.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdmissionController {
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final TaskLauncher taskLauncher;
+    private final ReadyQueue readyQueue;
+
+    @Value("${admission.max-backlog:1000}")
+    private int maxBacklog;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong completions = new AtomicLong();
+    private final AtomicLong rejectedSubmissions = new AtomicLong();
+    private volatile double completionsPerSecond;
+    private volatile Runnable capacityListener = () -> { };
+
+    public void setCapacityListener(Runnable capacityListener) {
+        this.capacityListener = capacityListener;
+    }
+
+    public void admitSubmission(int taskCount) {
+        int backlog = getBacklog();
+        if (backlog + taskCount > maxBacklog) {
+            rejectedSubmissions.incrementAndGet();
+            throw new AdmissionRejectedException("Scheduler is saturated", estimateRetryAfterSeconds(backlog));
+        }
+    }
+
+    public boolean hasDispatchCapacity() {
+        return getDispatchHeadroom() > 0;
+    }
+
+    public int getDispatchHeadroom() {
+        return Math.max(0, taskLauncher.getCapacity() - inFlight.get());
+    }
+
+    /**
+     * Reserves an in-flight slot for a run about to be launched.
+     *
+     * @throws RejectedExecutionException if every slot is taken
+     */
+    public void acquireSlot() {
+        int capacity = taskLauncher.getCapacity();
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= capacity) {
+                throw new RejectedExecutionException("No free task execution slots");
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+    }
+
+    public void releaseSlot() {
+        inFlight.decrementAndGet();
+    }
+
+    public void onRunFinished() {
+        releaseSlot();
+        completions.incrementAndGet();
+        capacityListener.run();
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void updateCompletionRate() {
+        long completed = completions.getAndSet(0);
+        completionsPerSecond = RATE_SMOOTHING * completed + (1 - RATE_SMOOTHING) * completionsPerSecond;
+    }
+
+    public AdmissionStats stats() {
+        return new AdmissionStats(
+            inFlight.get(),
+            taskLauncher.getCapacity(),
+            taskLauncher.getQueuedCount(),
+            readyQueue.size(),
+            maxBacklog,
+            completionsPerSecond,
+            rejectedSubmissions.get()
+        );
+    }
+
+    private int getBacklog() {
+        return readyQueue.size() + taskLauncher.getQueuedCount();
+    }
+
+    private long estimateRetryAfterSeconds(int backlog) {
+        double rate = completionsPerSecond;
+        if (rate < 1e-3) {
+            return 1;
+        }
+        return Math.max(1, (long) Math.ceil(backlog / rate));
+    }
+
+    public record AdmissionStats(
+        int inFlight,
+        int capacity,
+        int executorQueueDepth,
+        int readyQueueDepth,
+        int maxBacklog,
+        double completionsPerSecond,
+        long rejectedSubmissions
+    ) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.archive.ArchiveSegmentStore;
+import com.taskscheduler.archive.ArchivedTask;
+import com.taskscheduler.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Moves old terminal tasks out of the hot table into {@link ArchiveSegmentStore}, one chunk
+ * per transaction. A chunk is written to disk before its rows are deleted, so a failed commit
+ * can only leave a duplicate in the archive, never lose a task.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArchiveService {
+    private final TaskRepository taskRepository;
+    private final ArchiveSegmentStore segmentStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${archive.chunk-size:1000}")
+    private int chunkSize;
+
+    public int archiveOldTasks() {
+        LocalDateTime threshold = LocalDateTime.now().minusDays(retentionDays);
+        int archived = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> archiveChunk(threshold));
+            archived += chunk;
+        } while (chunk == chunkSize);
+        if (archived > 0) {
+            log.info("Archived {} tasks finished before {}", archived, threshold);
+        }
+        return archived;
+    }
+
+    public Optional<ArchivedTask> findArchivedTask(long taskId) {
+        return segmentStore.findById(taskId);
+    }
+
+    public List<ArchivedTask> findArchivedTasks(LocalDateTime from, LocalDateTime to, int limit) {
+        return segmentStore.findByFinishedTime(from, to, limit);
+    }
+
+    private int archiveChunk(LocalDateTime threshold) {
+        List<ArchivedTask> tasks = taskRepository.lockArchivable(threshold, chunkSize);
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        segmentStore.append(tasks);
+        taskRepository.deleteArchived(tasks.stream().map(ArchivedTask::id).toList());
+        return tasks.size();
+    }
+}
@@ -0,0 +1,79 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.TaskCheckpoint;
+import com.taskscheduler.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind store for task checkpoints. Running tasks may checkpoint as often as they
+ * like; only the latest checkpoint per task is kept and they are written in one batched
+ * UPDATE per interval. Pausing flushes at once so a resume on any instance sees it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CheckpointStore {
+    private final TaskRepository taskRepository;
+    private final LeaseManager leaseManager;
+
+    private final ConcurrentHashMap<Long, TaskCheckpoint> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void checkpoint(Long taskId, int progress, byte[] state) {
+        pending.put(taskId, TaskCheckpoint.of(taskId, progress, state));
+    }
+
+    // Finished tasks keep their final progress but drop the state so nothing resumes from it
+    public void complete(Long taskId) {
+        pending.put(taskId, TaskCheckpoint.of(taskId, 100, null));
+    }
+
+    /**
+     * The checkpoint to resume {@code task} from: a not-yet-flushed one on this instance,
+     * else the one loaded from the database when the task was claimed.
+     */
+    public Optional<TaskCheckpoint> latest(Task task) {
+        TaskCheckpoint local = pending.get(task.getId());
+        if (local != null) {
+            return local.state() != null ? Optional.of(local) : Optional.empty();
+        }
+        return Optional.ofNullable(TaskCheckpoint.of(task));
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.checkpoint.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<TaskCheckpoint> batch = new ArrayList<>(pending.values());
+            try {
+                // Only rows this instance still owns, so a run that lost its lease cannot rewind the new owner
+                taskRepository.updateCheckpoints(batch, leaseManager.getInstanceId());
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} task checkpoints", batch.size(), e);
+                return;
+            }
+            batch.forEach(checkpoint -> pending.remove(checkpoint.taskId(), checkpoint));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
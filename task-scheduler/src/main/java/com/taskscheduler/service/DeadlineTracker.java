@@ -0,0 +1,49 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.metrics.SlaMetrics;
+import com.taskscheduler.model.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deadline bookkeeping for tasks with an explicit deadline. A queued task is unmeetable once
+ * now plus the smoothed run time of recent tasks is past its deadline; until the first run
+ * finishes the estimate is zero, so only tasks already overdue are shed.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeadlineTracker {
+    private static final double RUNTIME_SMOOTHING = 0.2;
+
+    private final SlaMetrics slaMetrics;
+
+    @Value("${scheduler.deadlines.shed-unmeetable:true}")
+    private boolean shedUnmeetable;
+
+    private volatile long estimatedRunNanos;
+
+    public boolean cannotMeet(Task task) {
+        if (!shedUnmeetable || task.getDeadline() == null) {
+            return false;
+        }
+        return LocalDateTime.now().plusNanos(estimatedRunNanos).isAfter(task.getDeadline());
+    }
+
+    public void recordCompletion(Task task, long runNanos) {
+        synchronized (this) {
+            long estimate = estimatedRunNanos;
+            estimatedRunNanos = estimate == 0 ? runNanos : (long) (RUNTIME_SMOOTHING * runNanos + (1 - RUNTIME_SMOOTHING) * estimate);
+        }
+        if (task.getDeadline() != null && task.getCompletedTime() != null) {
+            slaMetrics.recordCompletion(task.getPriority(), Duration.between(task.getCompletedTime(), task.getDeadline()).toMillis());
+        }
+    }
+
+    public void recordShed(Task task) {
+        slaMetrics.recordShed(task.getPriority());
+    }
+}
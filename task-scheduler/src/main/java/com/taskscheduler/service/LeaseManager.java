@@ -0,0 +1,176 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.TaskLease;
+import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.scheduling.DependencyIndex;
+import com.taskscheduler.scheduling.LeaseDeadlineIndex;
+import com.taskscheduler.scheduling.TaskTimer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Leases on RUNNING tasks. Tasks this instance has claimed or is running are held and
+ * their leases renewed together in one UPDATE per heartbeat. Other instances' leases are
+ * mirrored in a {@link LeaseDeadlineIndex}; the sweep takes whatever has expired there and
+ * requeues (or fails) it with one guarded, set-based UPDATE.
+ *
+ * The heartbeat runs on its own thread so slow jobs on the shared scheduler thread cannot
+ * delay it past the lease duration. Held tasks whose lease it finds gone (expired and taken
+ * over elsewhere) are dropped and handed to the lost handler to stop.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeaseManager {
+    public enum ExpiredAction { REQUEUE, FAIL }
+
+    private final TaskRepository taskRepository;
+    private final LeaseDeadlineIndex deadlineIndex;
+    private final TaskTimer taskTimer;
+    private final DependencyIndex dependencyIndex;
+    private final MetricsService metricsService;
+    private final TaskHistoryLog taskHistoryLog;
+
+    @Getter
+    @Value("${scheduler.instance-id:${random.uuid}}")
+    private String instanceId;
+
+    @Value("${scheduler.lease-duration-ms:30000}")
+    private long leaseDurationMs;
+
+    @Value("${scheduler.lease-renew-interval-ms:10000}")
+    private long renewIntervalMs;
+
+    @Value("${scheduler.lease-expired-action:REQUEUE}")
+    private ExpiredAction expiredAction;
+
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService heartbeat;
+
+    private volatile Consumer<List<Long>> lostHandler = ids -> { };
+
+    public void setLostHandler(Consumer<List<Long>> lostHandler) {
+        this.lostHandler = lostHandler;
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "LeaseHeartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleWithFixedDelay(this::renewLeases, renewIntervalMs, renewIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+    }
+
+    public void hold(Long taskId) {
+        held.add(taskId);
+    }
+
+    public void holdAll(List<Long> taskIds) {
+        held.addAll(taskIds);
+    }
+
+    public void release(Long taskId) {
+        held.remove(taskId);
+    }
+
+    public void releaseAll(List<Long> taskIds) {
+        taskIds.forEach(held::remove);
+    }
+
+    public List<Long> heldTasks() {
+        return new ArrayList<>(held);
+    }
+
+    public LocalDateTime leaseExpiry(LocalDateTime now) {
+        return now.plusNanos(leaseDurationMs * 1_000_000);
+    }
+
+    // Heartbeat: must run well inside the lease duration so one missed beat does not expire leases
+    void renewLeases() {
+        if (held.isEmpty()) {
+            return;
+        }
+        List<Long> lost = new ArrayList<>(held);
+        try {
+            lost.removeAll(new HashSet<>(taskRepository.renewLeases(lost, instanceId, leaseExpiry(LocalDateTime.now()))));
+        } catch (RuntimeException e) {
+            // Caught so the executor keeps the heartbeat scheduled
+            log.error("Failed to renew {} leases", lost.size(), e);
+            return;
+        }
+        // Tasks released during the renew finished normally and have nothing left to stop
+        lost.removeIf(taskId -> !held.remove(taskId));
+        if (!lost.isEmpty()) {
+            log.warn("Lost the lease on {} tasks, stopping them", lost.size());
+            lostHandler.accept(lost);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.lease-refresh-interval-ms:5000}")
+    public void refreshDeadlines() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LocalDateTime> leases = new HashMap<>();
+        for (TaskLease lease : taskRepository.findForeignLeases(instanceId)) {
+            LocalDateTime deadline = lease.leaseExpiresAt();
+            if (deadline == null) {
+                // Not yet leased by its runner (or left over from before leases): allow one lease duration
+                LocalDateTime known = deadlineIndex.get(lease.id());
+                deadline = known != null ? known : leaseExpiry(now);
+            }
+            leases.put(lease.id(), deadline);
+        }
+        deadlineIndex.replaceAll(leases);
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.lease-sweep-interval-ms:1000}")
+    public void sweepExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expired = deadlineIndex.pollExpired(now);
+        expired.removeIf(held::contains);
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        // Guarded by the stored lease, so a lease renewed since the last refresh is left alone
+        Task.TaskStatus status = expiredAction == ExpiredAction.FAIL ? Task.TaskStatus.FAILED : Task.TaskStatus.PENDING;
+        List<Long> reclaimed = taskRepository.expireLeases(expired, now, status);
+        if (reclaimed.isEmpty()) {
+            return;
+        }
+        log.warn("Lease expired on {} tasks, marked {}", reclaimed.size(), status);
+        taskHistoryLog.recordAll(reclaimed, Task.TaskStatus.RUNNING, status);
+        if (status == Task.TaskStatus.PENDING) {
+            reclaimed.forEach(taskId -> taskTimer.schedule(taskId, now));
+        } else {
+            metricsService.recordTaskFailures(reclaimed.size());
+            reclaimed.forEach(dependencyIndex::onTerminated);
+        }
+    }
+}
@@ -1,63 +1,164 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.cache.CacheStats;
+import com.taskscheduler.cache.TaskCache;
+import com.taskscheduler.cache.UserLookupCache;
+import com.taskscheduler.events.TaskEventBus;
+import com.taskscheduler.metrics.LifecycleMetrics;
+import com.taskscheduler.metrics.MetricsRollup;
+import com.taskscheduler.metrics.MetricsTimeSeries;
+import com.taskscheduler.metrics.SlaMetrics;
+import com.taskscheduler.metrics.SeriesPoint;
+import com.taskscheduler.metrics.SystemMetric;
+import com.taskscheduler.metrics.TaskMetricsRegistry;
 import com.taskscheduler.model.*;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import com.taskscheduler.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import com.taskscheduler.model.SystemMetrics;
 import com.taskscheduler.model.Task;
 import com.taskscheduler.repository.MetricsRepository;
-import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.scheduling.PriorityLaneQueue;
+import com.taskscheduler.scheduling.ReadyQueue;
+import com.taskscheduler.websocket.ConflatingPublisher;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.lang.management.ManagementFactory;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
-public class MetricsService {
+public class MetricsService implements MeterBinder {
     private final MetricsRepository metricsRepository;
-    private final TaskRepository taskRepository;
     private final ThreadPoolTaskExecutor taskExecutor;
+    // Absent under the EDF dispatch policy, which has no lanes
+    private final ObjectProvider<PriorityLaneQueue> priorityLaneQueue;
+    private final ReadyQueue readyQueue;
+    private final AdmissionController admissionController;
+    private final ConflatingPublisher conflatingPublisher;
+    private final TaskMetricsRegistry taskMetricsRegistry;
+    private final MetricsTimeSeries metricsTimeSeries;
+    private final TaskCache taskCache;
+    private final UserLookupCache userLookupCache;
+    private final UserQuotas userQuotas;
+    private final SlaMetrics slaMetrics;
+    private final LifecycleMetrics lifecycleMetrics;
+    private final TaskEventBus taskEventBus;
 
-    @Scheduled(fixedRate = 5000) // Every 5 seconds
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("tasks.queued", this, MetricsService::queuedTasks)
+            .description("Tasks waiting for an executor slot")
+            .register(registry);
+    }
+
+    // Samples go to the in-memory series; only sealed 1-minute averages are persisted
+    @Scheduled(fixedRateString = "${metrics.collect-interval-ms:5000}")
     public void collectMetrics() {
         SystemMetrics metrics = new SystemMetrics();
         metrics.setTimestamp(LocalDateTime.now());
-        metrics.setActiveTasks(countActiveTasks());
+        metrics.setActiveTasks(taskMetricsRegistry.getActiveTasks());
         metrics.setCpuUsage(getCpuUsage());
         metrics.setMemoryUsage(getMemoryUsage());
         metrics.setThreadPoolSize(taskExecutor.getPoolSize());
         metrics.setQueueSize(taskExecutor.getQueueSize());
         
-        metricsRepository.save(metrics);
+        MetricsRollup sealedMinute = metricsTimeSeries.record(metrics);
+        if (sealedMinute != null) {
+            metricsRepository.save(toSystemMetrics(sealedMinute));
+        }
     }
 
-     public List<SystemMetrics> getRecentMetrics() {
-        LocalDateTime startTime = LocalDateTime.now().minusHours(24); // Last 24 hours
-        return metricsRepository.findRecentMetrics(startTime);
+    public List<SystemMetrics> getRecentMetrics(int maxPoints) {
+        long now = System.currentTimeMillis();
+        long startTime = now - 24 * 60 * 60 * 1000L; // Last 24 hours
+        return metricsTimeSeries.query(startTime, now, maxPoints).stream()
+            .map(this::toSystemMetrics)
+            .toList();
     }
 
-    public void recordTaskCompletion(Task task) {
-        // Record task completion metrics
-        SystemMetrics metrics = new SystemMetrics();
-        metrics.setTimestamp(LocalDateTime.now());
-        metrics.setActiveTasks(countActiveTasks());
-        metricsRepository.save(metrics);
+    public List<SeriesPoint> getSeries(SystemMetric metric, LocalDateTime from, LocalDateTime to, int maxPoints) {
+        return metricsTimeSeries.series(metric, toEpochMillis(from), toEpochMillis(to), maxPoints);
     }
 
-    public void recordTaskFailure(Task task) {
-        // Record task failure metrics
-        SystemMetrics metrics = new SystemMetrics();
-        metrics.setTimestamp(LocalDateTime.now());
-        metrics.setActiveTasks(countActiveTasks());
-        metricsRepository.save(metrics);
+    public List<PriorityLaneQueue.LaneStats> getLaneStats() {
+        PriorityLaneQueue lanes = priorityLaneQueue.getIfAvailable();
+        return lanes == null ? List.of() : lanes.stats();
+    }
+
+    public List<UserQuotas.UserShareStats> getUserShareStats() {
+        return userQuotas.stats(readyQueue.userStats());
+    }
+
+    public List<LifecycleMetrics.StageStats> getLifecycleStats(Task.TaskPriority priority) {
+        return lifecycleMetrics.snapshot(priority);
+    }
+
+    public SlaMetrics.Snapshot getSlaStats() {
+        return slaMetrics.snapshot();
+    }
+
+    public AdmissionController.AdmissionStats getAdmissionStats() {
+        return admissionController.stats();
+    }
+
+    public TaskEventBus.EventBusStats getEventBusStats() {
+        return taskEventBus.stats();
+    }
+
+    public ConflatingPublisher.PublisherStats getPublisherStats() {
+        return conflatingPublisher.stats();
+    }
+
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        stats.add(taskCache.stats());
+        stats.addAll(userLookupCache.stats());
+        return stats;
+    }
+
+    public TaskMetricsRegistry.Snapshot getTaskCounters() {
+        return taskMetricsRegistry.snapshot(queuedTasks());
+    }
+
+    private int queuedTasks() {
+        return readyQueue.size() + taskExecutor.getQueueSize();
+    }
+
+    public void recordTaskStarted(Task task) {
+        taskMetricsRegistry.incrementActiveTasks();
+    }
+
+    public void recordTaskStopped(Task task) {
+        taskMetricsRegistry.decrementActiveTasks();
+    }
+
+    public void recordTaskFailures(int count) {
+        taskMetricsRegistry.incrementTasksFailed(count);
+    }
+
+    private SystemMetrics toSystemMetrics(MetricsRollup rollup) {
+        double[] avg = rollup.avg();
+        return SystemMetrics.builder()
+            .timestamp(MetricsTimeSeries.toLocalDateTime(rollup.startMillis()))
+            .activeTasks((int) Math.round(avg[SystemMetric.ACTIVE_TASKS.ordinal()]))
+            .cpuUsage(avg[SystemMetric.CPU_USAGE.ordinal()])
+            .memoryUsage(avg[SystemMetric.MEMORY_USAGE.ordinal()])
+            .threadPoolSize((int) Math.round(avg[SystemMetric.THREAD_POOL_SIZE.ordinal()]))
+            .queueSize((int) Math.round(avg[SystemMetric.QUEUE_SIZE.ordinal()]))
+            .build();
     }
 
-    private int countActiveTasks() {
-        return taskRepository.findByStatus(Task.TaskStatus.RUNNING).size();
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
     private double getCpuUsage() {
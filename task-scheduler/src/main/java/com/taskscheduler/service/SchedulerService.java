@@ -1,117 +1,255 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.cache.TaskCache;
+import com.taskscheduler.metrics.LifecycleMetrics;
 import com.taskscheduler.model.Task;
 import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.scheduling.DependencyIndex;
+import com.taskscheduler.scheduling.ReadyQueue;
+import com.taskscheduler.scheduling.TaskTimer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.PriorityBlockingQueue;
-import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class SchedulerService {
     private final TaskService taskService;
     private final TaskRepository taskRepository;
-    private final MetricsService metricsService;
-    
-    private final PriorityBlockingQueue<Task> taskQueue = new PriorityBlockingQueue<>(
-        11,
-        Comparator
-            .<Task>comparingInt(task -> task.getPriority().ordinal())
-            .thenComparing(Task::getScheduledTime)
-    );
-
-    @Scheduled(fixedRate = 1000) // Check every second
-    @Transactional
-    public void scheduleTasksExecution() {
-        List<Task> executableTasks = taskRepository.findExecutableTasks();
-        
-        for (Task task : executableTasks) {
-            if (shouldScheduleTask(task)) {
-                taskQueue.offer(task);
+    private final TaskTimer taskTimer;
+    private final DependencyIndex dependencyIndex;
+    private final ReadyQueue taskQueue;
+    private final AdmissionController admissionController;
+    private final TaskStateJournal taskStateJournal;
+    private final ArchiveService archiveService;
+    private final LeaseManager leaseManager;
+    private final TaskHistoryLog taskHistoryLog;
+    private final TaskCache taskCache;
+    private final UserQuotas userQuotas;
+    private final DeadlineTracker deadlineTracker;
+    private final SnapshotManager snapshotManager;
+    private final LifecycleMetrics lifecycleMetrics;
+
+    @Value("${scheduler.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    @Value("${scheduler.claim-batch-size:100}")
+    private int claimBatchSize;
+
+    @PostConstruct
+    public void registerDueHandler() {
+        taskTimer.setDueHandler(this::onTasksDue);
+        dependencyIndex.setReadyHandler(this::onTasksDue);
+        dependencyIndex.setUnreachableHandler(taskService::failUnreachable);
+        admissionController.setCapacityListener(this::processPendingTasks);
+        taskQueue.setQuotaGate(userQuotas);
+        leaseManager.setLostHandler(this::onLeasesLost);
+    }
+
+    // Loads the timing wheel and dependency index on startup, then re-arms any PENDING rows they do not know about
+    @Scheduled(fixedDelayString = "${scheduler.reconcile-interval-ms:30000}")
+    public void reconcilePendingTasks() {
+        if (!snapshotManager.isLoaded()) {
+            snapshotManager.restore(this::reconcilePendingSchedule);
+            return;
+        }
+        reconcilePendingSchedule();
+    }
+
+    private void reconcilePendingSchedule() {
+        for (TaskRepository.ScheduleEntry entry : taskRepository.findPendingSchedule()) {
+            registerDependency(entry);
+            if (!taskTimer.contains(entry.getId())) {
+                taskTimer.schedule(entry.getId(), entry.getScheduledTime());
             }
         }
+    }
 
-        processPendingTasks();
+    public void onTasksDue(List<Long> taskIds) {
+        long dueAt = System.nanoTime();
+        // Tasks still waiting on a parent are parked until DependencyIndex releases them
+        List<Long> dispatchable = new ArrayList<>(taskIds.size());
+        for (Long taskId : taskIds) {
+            if (!dependencyIndex.park(taskId)) {
+                dispatchable.add(taskId);
+            }
+        }
+        if (dispatchable.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = taskRepository.claimTasks(dispatchable, leaseManager.getInstanceId(), now, leaseManager.leaseExpiry(now));
+
+        if (claimed.size() < dispatchable.size()) {
+            // The rest are owned by another instance, no longer PENDING, or blocked on an unindexed dependency
+            Set<Long> unclaimed = new HashSet<>(dispatchable);
+            claimed.forEach(unclaimed::remove);
+            for (TaskRepository.ScheduleEntry entry : taskRepository.findDependencyBlocked(unclaimed)) {
+                registerDependency(entry);
+                if (!dependencyIndex.park(entry.getId())) {
+                    retryLater(entry.getId());
+                }
+            }
+        }
+
+        enqueueClaimed(claimed, dueAt);
     }
 
-    @Transactional
-    public void scheduleTask(Task task) {
-        if (task.getScheduledTime() == null) {
-            task.setScheduledTime(LocalDateTime.now());
+    // Work sharing between instances: picks up due rows armed on other (possibly dead) nodes
+    @Scheduled(fixedDelayString = "${scheduler.claim-interval-ms:5000}")
+    public void claimDueTasks() {
+        // Only claim what the executor can take so queued claims are not hoarded from other instances
+        int limit = Math.min(claimBatchSize, admissionController.getDispatchHeadroom() - taskQueue.size());
+        if (limit <= 0) {
+            return;
+        }
+        long dueAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = taskRepository.claimDueTasks(leaseManager.getInstanceId(), now, leaseManager.leaseExpiry(now), limit);
+        claimed.forEach(taskTimer::cancel);
+        enqueueClaimed(claimed, dueAt);
+    }
+
+    // Users held back by their token bucket get no completion to wake the dispatcher, so poll for refills
+    @Scheduled(fixedDelayString = "${scheduler.fair-share.retry-interval-ms:100}")
+    public void dispatchThrottled() {
+        if (taskQueue.size() > 0) {
+            processPendingTasks();
+        }
+    }
+
+    // Fails queued tasks that can no longer finish by their deadline rather than running them late
+    @Scheduled(fixedDelayString = "${scheduler.deadlines.shed-interval-ms:1000}")
+    public void shedUnmeetableTasks() {
+        List<Task> unmeetable = taskQueue.removeMatching(deadlineTracker::cannotMeet);
+        if (!unmeetable.isEmpty()) {
+            unmeetable.forEach(task -> lifecycleMetrics.discard(task.getId()));
+            taskService.shedTasks(unmeetable);
         }
-        taskQueue.offer(task);
     }
 
-    @Scheduled(fixedRate = 300000) // Every 5 minutes
     @Transactional
-    public void cleanupStuckTasks() {
-        LocalDateTime threshold = LocalDateTime.now().minusHours(1);
-        
-        List<Task> stuckTasks = taskRepository.findByStatusAndScheduledTimeBefore(
-            Task.TaskStatus.RUNNING,
-            threshold
-        );
-        
-        for (Task task : stuckTasks) {
-            task.setStatus(Task.TaskStatus.FAILED);
-            taskRepository.save(task);
-            metricsService.recordTaskFailure(task);
+    public void scheduleTask(Task task) {
+        if (task.getScheduledTime() == null) {
+            task.setScheduledTime(LocalDateTime.now());
         }
+        taskTimer.schedule(task.getId(), task.getScheduledTime());
     }
 
     @Scheduled(cron = "0 0 0 * * *") // Daily at midnight
-    @Transactional
     public void archiveOldTasks() {
-        LocalDateTime threshold = LocalDateTime.now().minusDays(30);
-        List<Task> oldCompletedTasks = taskRepository.findByStatusAndCompletedTimeBefore(
-            Task.TaskStatus.COMPLETED,
-            threshold
-        );
-        
-        // Archive tasks (could move to archive table or external storage)
-        for (Task task : oldCompletedTasks) {
-            task.setStatus(Task.TaskStatus.ARCHIVED);
-            taskRepository.save(task);
+        archiveService.archiveOldTasks();
+    }
+
+    private void enqueueClaimed(List<Long> claimedIds, long dueAt) {
+        if (claimedIds.isEmpty()) {
+            return;
         }
+        taskHistoryLog.recordAll(claimedIds, Task.TaskStatus.PENDING, Task.TaskStatus.RUNNING);
+        leaseManager.holdAll(claimedIds);
+        List<Task> tasks = taskCache.loadClaimed(claimedIds, leaseManager.getInstanceId());
+        tasks.forEach(task -> lifecycleMetrics.enqueued(task, dueAt));
+        taskQueue.addAll(tasks);
+        processPendingTasks();
     }
 
     private void processPendingTasks() {
-        while (!taskQueue.isEmpty()) {
-            Task task = taskQueue.poll();
-            if (task != null && shouldExecuteTask(task)) {
+        Task task;
+        // Backpressure: leave work queued while the executor has no free slot
+        while (admissionController.hasDispatchCapacity() && (task = taskQueue.poll()) != null) {
+            if (!shouldExecuteTask(task)) {
+                userQuotas.cancelDispatch(task.getId());
+                lifecycleMetrics.discard(task.getId());
+                leaseManager.release(task.getId());
+                continue;
+            }
+            lifecycleMetrics.dispatched(task.getId());
+            try {
                 taskService.executeTask(task);
+            } catch (RejectedExecutionException e) {
+                // Lost the last slot to a concurrent dispatch; the next finished run drains the queue again
+                userQuotas.cancelDispatch(task.getId());
+                taskQueue.offer(task);
+                return;
+            } catch (RuntimeException e) {
+                // Hand the claim back rather than leave the row RUNNING under a lease this node keeps renewing
+                log.warn("Failed to dispatch task {}, releasing its claim", task.getId(), e);
+                userQuotas.cancelDispatch(task.getId());
+                releaseClaim(task.getId());
             }
         }
     }
 
-    private boolean shouldScheduleTask(Task task) {
-        return task.getStatus() == Task.TaskStatus.PENDING &&
-               (task.getScheduledTime() == null || 
-                !task.getScheduledTime().isAfter(LocalDateTime.now()));
+    private void releaseClaim(Long taskId) {
+        leaseManager.release(taskId);
+        lifecycleMetrics.discard(taskId);
+        try {
+            List<Long> released = taskRepository.releaseTasks(List.of(taskId), leaseManager.getInstanceId());
+            taskHistoryLog.recordAll(released, Task.TaskStatus.RUNNING, Task.TaskStatus.PENDING);
+            if (!released.isEmpty()) {
+                retryLater(taskId);
+            }
+        } catch (RuntimeException e) {
+            // No longer renewed, so the lease sweep requeues it once the lease runs out
+            log.warn("Failed to release claim on task {}", taskId, e);
+        }
     }
 
-    private boolean shouldExecuteTask(Task task) {
-        // Check if task is still in PENDING state (might have changed since being queued)
-        Task freshTask = taskRepository.findById(task.getId()).orElse(null);
-        if (freshTask == null || freshTask.getStatus() != Task.TaskStatus.PENDING) {
-            return false;
+    // Claims still queued are dropped here; runs already handed to the executor are stopped by TaskService
+    private void onLeasesLost(List<Long> taskIds) {
+        for (Long taskId : taskIds) {
+            if (taskQueue.remove(taskId)) {
+                lifecycleMetrics.discard(taskId);
+            }
         }
+        taskService.abandonTasks(taskIds);
+    }
+
+    // Hand claimed-but-undispatched tasks back so another instance can pick them up
+    @PreDestroy
+    public void releaseQueuedClaims() {
+        List<Long> queued = taskQueue.drain().stream().map(Task::getId).toList();
+        leaseManager.releaseAll(queued);
+        queued.forEach(lifecycleMetrics::discard);
+        List<Long> released = taskRepository.releaseTasks(queued, leaseManager.getInstanceId());
+        taskHistoryLog.recordAll(released, Task.TaskStatus.RUNNING, Task.TaskStatus.PENDING);
+    }
 
-        // Check dependencies
-        if (freshTask.getDependentTask() != null && 
-            freshTask.getDependentTask().getStatus() != Task.TaskStatus.COMPLETED) {
-            return false;
+    private boolean shouldExecuteTask(Task task) {
+        // Only tasks this instance has claimed are queued; skip any rescheduled since the claim
+        return task.getStatus() == Task.TaskStatus.RUNNING &&
+               leaseManager.getInstanceId().equals(task.getOwnerId()) &&
+               !taskTimer.contains(task.getId());
+    }
+
+    private void registerDependency(TaskRepository.ScheduleEntry entry) {
+        dependencyIndex.register(
+            entry.getId(),
+            entry.getDependencyId(),
+            entry.getDependencyStatus() == Task.TaskStatus.COMPLETED
+        );
+        // The parent ended on another instance, or before this one started
+        if (entry.getDependencyStatus() == Task.TaskStatus.FAILED || entry.getDependencyStatus() == Task.TaskStatus.CANCELLED) {
+            dependencyIndex.onTerminated(entry.getDependencyId());
         }
+    }
 
-        // Check scheduling time
-        return freshTask.getScheduledTime() == null || 
-               !freshTask.getScheduledTime().isAfter(LocalDateTime.now());
+    private void retryLater(Long taskId) {
+        taskTimer.schedule(taskId, LocalDateTime.now().plusNanos(retryDelayMs * 1_000_000));
     }
 
     public List<Task> getScheduledTasks() {
@@ -119,26 +257,47 @@ public class SchedulerService {
     }
 
     public void cancelScheduledTask(Long taskId) {
-        taskQueue.removeIf(task -> task.getId().equals(taskId));
+        taskTimer.cancel(taskId);
+        dependencyIndex.remove(taskId);
+        boolean dequeued = taskQueue.remove(taskId);
+        if (dequeued) {
+            leaseManager.release(taskId);
+            lifecycleMetrics.discard(taskId);
+        }
         Task task = taskRepository.findById(taskId)
+            .map(taskStateJournal::apply)
             .orElseThrow(() -> new IllegalArgumentException("Task not found"));
             
-        if (task.getStatus() == Task.TaskStatus.PENDING) {
+        // A dequeued task was claimed (RUNNING) but never handed to the executor
+        if (task.getStatus() == Task.TaskStatus.PENDING || dequeued) {
+            taskHistoryLog.record(taskId, task.getStatus(), Task.TaskStatus.CANCELLED);
             task.setStatus(Task.TaskStatus.CANCELLED);
+            taskStateJournal.discard(taskId);
             taskRepository.save(task);
+            taskCache.invalidate(taskId);
+            dependencyIndex.onTerminated(taskId);
         }
     }
 
     public void rescheduleTask(Long taskId, LocalDateTime newScheduledTime) {
+        // A claimed task still waiting for dispatch gives up its claim rather than running at the old time
+        if (taskQueue.remove(taskId)) {
+            leaseManager.release(taskId);
+            lifecycleMetrics.discard(taskId);
+        }
         Task task = taskRepository.findById(taskId)
+            .map(taskStateJournal::apply)
             .orElseThrow(() -> new IllegalArgumentException("Task not found"));
             
         if (task.getStatus() != Task.TaskStatus.COMPLETED && 
             task.getStatus() != Task.TaskStatus.CANCELLED) {
             task.setScheduledTime(newScheduledTime);
+            taskHistoryLog.record(taskId, task.getStatus(), Task.TaskStatus.PENDING);
             task.setStatus(Task.TaskStatus.PENDING);
+            taskStateJournal.discard(taskId);
             taskRepository.save(task);
-            taskQueue.offer(task);
+            taskCache.invalidate(taskId);
+            taskTimer.schedule(taskId, newScheduledTime);
         }
     }
 }
@@ -0,0 +1,233 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.ScheduleChange;
+import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.scheduling.DependencyIndex;
+import com.taskscheduler.scheduling.SchedulerSnapshot;
+import com.taskscheduler.scheduling.TaskTimer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm start for the scheduler's in-memory state. Armed timers, parked tasks, dependency
+ * edges and claimed task ids are written to a local {@link SchedulerSnapshot} every few
+ * seconds. On boot the first reconcile replays the last snapshot and catches up with one
+ * streaming query for rows updated since it was taken, instead of scanning every PENDING row.
+ *
+ * The snapshot directory must belong to a single instance: claims recorded in it are
+ * handed back on boot as those of a dead process. An exclusive lock on the directory is
+ * held for the life of the process; an instance that cannot take it falls back to the
+ * full scan and writes no snapshots. Snapshots are written on their own thread, off the
+ * shared scheduler thread.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SnapshotManager {
+    private static final String SNAPSHOT_FILE = "scheduler.snap";
+    private static final String LOCK_FILE = "scheduler.lock";
+
+    private final TaskTimer taskTimer;
+    private final DependencyIndex dependencyIndex;
+    private final LeaseManager leaseManager;
+    private final TaskRepository taskRepository;
+    private final TaskHistoryLog taskHistoryLog;
+
+    @Value("${scheduler.snapshot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scheduler.snapshot.directory:snapshots}")
+    private String snapshotDirectory;
+
+    @Value("${scheduler.snapshot.interval-ms:10000}")
+    private long intervalMs;
+
+    @Value("${scheduler.snapshot.max-age-ms:3600000}")
+    private long maxAgeMs;
+
+    // updated_at is the start time of the updating transaction, so a row can commit after a snapshot yet predate it
+    @Value("${scheduler.snapshot.delta-margin-ms:60000}")
+    private long deltaMarginMs;
+
+    private Path snapshotFile;
+    private FileChannel lockChannel;
+    // Null when snapshots are disabled or another instance holds the directory
+    private FileLock directoryLock;
+    private ScheduledExecutorService writer;
+    // Nothing is written before the state is fully loaded, or a partial view would replace a good snapshot
+    private volatile boolean loaded;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path directory = Path.of(snapshotDirectory);
+        Files.createDirectories(directory);
+        snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another context in this JVM
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            log.warn("Snapshot directory {} is in use by another instance; starting with a full scan and not writing snapshots",
+                directory.toAbsolutePath());
+            lockChannel.close();
+            return;
+        }
+
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SchedulerSnapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::writeSnapshot, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Loads the timers and dependency index from the last snapshot, or through
+     * {@code fullReconcile} when there is no usable one.
+     */
+    public void restore(Runnable fullReconcile) {
+        if (directoryLock == null || !restoreSnapshot()) {
+            fullReconcile.run();
+        }
+        loaded = true;
+    }
+
+    void writeSnapshot() {
+        if (directoryLock == null || !loaded) {
+            return;
+        }
+        // Taken before the walk, so anything changed during it is newer than the snapshot and caught by the delta
+        long capturedAt = System.currentTimeMillis();
+        try {
+            SchedulerSnapshot.write(snapshotFile, capturedAt, leaseManager.getInstanceId(),
+                timers -> {
+                    taskTimer.forEachArmed(timers);
+                    // Parked tasks were due already; re-firing them on load parks them again
+                    dependencyIndex.forEachParked(taskId -> timers.accept(taskId, capturedAt));
+                },
+                dependencyIndex::forEachEdge,
+                leaseManager.heldTasks());
+        } catch (IOException | RuntimeException e) {
+            // RuntimeExceptions too, or the executor would stop scheduling further writes
+            log.warn("Failed to write scheduler snapshot {}", snapshotFile, e);
+        }
+    }
+
+    // Runs after SchedulerService has handed back its queued claims, so only running tasks remain held
+    @PreDestroy
+    public void writeOnShutdown() throws IOException {
+        if (directoryLock == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            // Let a periodic write in progress finish rather than race it on the same file
+            writer.awaitTermination(intervalMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeSnapshot();
+        lockChannel.close();
+    }
+
+    private boolean restoreSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return false;
+        }
+        long started = System.nanoTime();
+        SchedulerSnapshot snapshot;
+        try {
+            snapshot = SchedulerSnapshot.read(snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable scheduler snapshot {}: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+        long ageMs = System.currentTimeMillis() - snapshot.capturedAtMillis();
+        if (ageMs > maxAgeMs) {
+            log.info("Ignoring scheduler snapshot taken {} ms ago", ageMs);
+            return false;
+        }
+
+        snapshot.forEachEdge((taskId, parentId) -> dependencyIndex.register(taskId, parentId, false));
+        snapshot.forEachTimer(taskTimer::restore);
+
+        // The previous process's runs and queued claims died with it; requeue them now rather than at lease expiry
+        List<Long> released = taskRepository.releaseTasks(snapshot.claimed(), snapshot.instanceId());
+        taskHistoryLog.recordAll(released, Task.TaskStatus.RUNNING, Task.TaskStatus.PENDING);
+
+        LocalDateTime since = LocalDateTime.ofInstant(
+            Instant.ofEpochMilli(snapshot.capturedAtMillis() - deltaMarginMs), ZoneId.systemDefault());
+        long now = System.currentTimeMillis();
+        int[] changed = new int[1];
+        // Released outside the streaming transaction, since the ready and unreachable handlers write tasks
+        List<Long> completed = new ArrayList<>();
+        List<Long> terminated = new ArrayList<>();
+        taskRepository.streamScheduleChanges(since, change -> {
+            changed[0]++;
+            if (apply(change, now)) {
+                completed.add(change.id());
+            } else if (ended(change.status())) {
+                terminated.add(change.id());
+            } else if (change.status() == Task.TaskStatus.PENDING && ended(change.dependencyStatus())) {
+                terminated.add(change.dependencyId());
+            }
+        });
+        completed.forEach(dependencyIndex::onCompleted);
+        terminated.forEach(dependencyIndex::onTerminated);
+
+        log.info("Restored {} timers from scheduler snapshot taken {} ms ago, caught up on {} changed tasks in {} ms",
+            snapshot.timerCount(), ageMs, changed[0], (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    // Returns true if the task completed and its dependents must be resolved
+    private boolean apply(ScheduleChange change, long now) {
+        if (change.status() == Task.TaskStatus.PENDING) {
+            dependencyIndex.register(change.id(), change.dependencyId(),
+                change.dependencyStatus() == Task.TaskStatus.COMPLETED);
+            LocalDateTime scheduledTime = change.scheduledTime();
+            taskTimer.restore(change.id(), scheduledTime == null
+                ? now
+                : scheduledTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            return false;
+        }
+        taskTimer.cancel(change.id());
+        dependencyIndex.remove(change.id());
+        return change.status() == Task.TaskStatus.COMPLETED;
+    }
+
+    private static boolean ended(Task.TaskStatus status) {
+        return status == Task.TaskStatus.FAILED || status == Task.TaskStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,145 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.TaskHistoryEvent;
+import com.taskscheduler.repository.TaskHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Application-side task history. Status transitions are queued in memory and written to
+ * task_history in batched inserts on a short interval and on shutdown, instead of by a
+ * trigger inside every status UPDATE.
+ *
+ * In {@code TRIGGER} mode, the default, recording is a no-op and the V3 trigger writes
+ * history. Switching to {@code APPLICATION} mode is an ops step: drop the trigger with
+ * db/ops/disable_task_history_trigger.sql when deploying it, and restore it with
+ * enable_task_history_trigger.sql when going back. Startup only warns if the trigger does
+ * not match the mode, since it is shared by every instance. Events still queued when
+ * the process dies without a graceful shutdown are lost, as are the oldest events once the
+ * queue is full and events that still fail to insert after a few flushes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskHistoryLog {
+    public enum Mode { TRIGGER, APPLICATION }
+
+    private final TaskHistoryRepository taskHistoryRepository;
+
+    @Value("${tasks.history.mode:TRIGGER}")
+    private Mode mode;
+
+    @Value("${tasks.history.max-pending:50000}")
+    private int maxPending;
+
+    @Value("${tasks.history.max-attempts:3}")
+    private int maxAttempts;
+
+    private final Queue<Queued> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final LongAdder overflowed = new LongAdder();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @PostConstruct
+    public void checkMode() {
+        boolean triggerExists = taskHistoryRepository.statusTriggerExists();
+        if (mode == Mode.APPLICATION && triggerExists) {
+            log.warn("Task history mode is APPLICATION but the status trigger is still installed, so transitions are "
+                + "recorded twice; run db/ops/disable_task_history_trigger.sql");
+        } else if (mode == Mode.TRIGGER && !triggerExists) {
+            log.warn("Task history mode is TRIGGER but the status trigger is missing, so no history is recorded; "
+                + "run db/ops/enable_task_history_trigger.sql");
+        }
+    }
+
+    public void record(Long taskId, Task.TaskStatus from, Task.TaskStatus to) {
+        if (mode != Mode.APPLICATION || from == to) {
+            return;
+        }
+        pending.add(new Queued(TaskHistoryEvent.transition(taskId, from, to), 0));
+        // Never flushes here: callers include the scheduler and event threads, which must not wait on inserts
+        if (pendingCount.incrementAndGet() > maxPending && pending.poll() != null) {
+            pendingCount.decrementAndGet();
+            overflowed.increment();
+        }
+    }
+
+    public void recordAll(List<Long> taskIds, Task.TaskStatus from, Task.TaskStatus to) {
+        taskIds.forEach(taskId -> record(taskId, from, to));
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.history.flush-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            long dropped = overflowed.sumThenReset();
+            if (dropped > 0) {
+                log.warn("Dropped {} task history events over the queue limit of {}", dropped, maxPending);
+            }
+            List<Queued> batch = new ArrayList<>();
+            Queued queued;
+            while ((queued = pending.poll()) != null) {
+                batch.add(queued);
+            }
+            pendingCount.addAndGet(-batch.size());
+            try {
+                taskHistoryRepository.insertAll(batch.stream().map(Queued::event).toList());
+            } catch (DataIntegrityViolationException e) {
+                // Typically a row for a task archived or deleted since; insert one by one so it holds up nothing else
+                log.warn("Task history batch of {} rejected, inserting rows individually: {}", batch.size(), e.getMessage());
+                batch.forEach(this::insertSingle);
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} task history events", batch.size(), e);
+                batch.forEach(this::retry);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void insertSingle(Queued queued) {
+        try {
+            taskHistoryRepository.insertAll(List.of(queued.event()));
+        } catch (RuntimeException e) {
+            retry(queued);
+        }
+    }
+
+    // Rows carry their own timestamps, so a later insert still records when the transition happened
+    private void retry(Queued queued) {
+        if (queued.attempts() + 1 >= maxAttempts) {
+            log.error("Dropping task history event {} after {} failed inserts", queued.event(), maxAttempts);
+            return;
+        }
+        pending.add(new Queued(queued.event(), queued.attempts() + 1));
+        pendingCount.incrementAndGet();
+    }
+
+    private record Queued(TaskHistoryEvent event, int attempts) {
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        // Wait out a scheduled flush in progress so its events are not skipped by tryLock
+        flushLock.lock();
+        flushLock.unlock();
+        flush();
+    }
+}
@@ -0,0 +1,76 @@
+package com.taskscheduler.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Starts task runs either on the platform {@code taskExecutor} pool or, in {@code virtual}
+ * mode, on one virtual thread per task bounded by a semaphore. Virtual-mode runs never
+ * get rejected: excess runs park cheaply in {@link #acquirePermit()} until a slot frees.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskLauncher {
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final ObjectProvider<VirtualThreadTaskExecutor> virtualTaskExecutor;
+
+    @Value("${task.execution.mode:platform}")
+    private String executionMode;
+
+    @Value("${task.execution.max-concurrency:200}")
+    private int maxConcurrency;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        if (isVirtual()) {
+            permits = new Semaphore(maxConcurrency);
+        }
+    }
+
+    public void launch(Runnable run) {
+        if (isVirtual()) {
+            virtualTaskExecutor.getObject().execute(run);
+        } else {
+            taskExecutor.execute(run);
+        }
+    }
+
+    // Called from the task's own thread after it is registered, so pause/cancel can interrupt the wait
+    public void acquirePermit() throws InterruptedException {
+        if (permits != null) {
+            permits.acquire();
+        }
+    }
+
+    public void releasePermit() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    public boolean isVirtual() {
+        return "virtual".equalsIgnoreCase(executionMode);
+    }
+
+    // Runs that may be handed to the launcher at once without piling up behind a full executor
+    public int getCapacity() {
+        return isVirtual() ? maxConcurrency : taskExecutor.getMaxPoolSize() + taskExecutor.getQueueCapacity();
+    }
+
+    public int getQueuedCount() {
+        return permits != null ? permits.getQueueLength() : taskExecutor.getQueueSize();
+    }
+
+    public int getActiveCount() {
+        return permits != null ? maxConcurrency - permits.availablePermits() : taskExecutor.getActiveCount();
+    }
+}
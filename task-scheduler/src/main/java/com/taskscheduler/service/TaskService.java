@@ -1,70 +1,206 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.cache.TaskCache;
+import com.taskscheduler.dto.BulkCreateResponse;
+import com.taskscheduler.dto.TaskCursor;
+import com.taskscheduler.dto.TaskPage;
+import com.taskscheduler.dto.TaskSummary;
+import com.taskscheduler.events.TaskEvent;
+import com.taskscheduler.events.TaskEventBus;
+import com.taskscheduler.exception.AdmissionRejectedException;
+import com.taskscheduler.metrics.LifecycleMetrics;
 import com.taskscheduler.model.*;
-import com.taskscheduler.websocket.WebSocketService;
 import com.taskscheduler.repository.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.TaskFilter;
 import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.scheduling.DependencyIndex;
+import com.taskscheduler.scheduling.TaskTimer;
 
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TaskService {
     private final TaskRepository taskRepository;
-    private final ThreadPoolTaskExecutor taskExecutor;
+    private final TaskLauncher taskLauncher;
+    private final AdmissionController admissionController;
     private final MetricsService metricsService;
-    private final WebSocketService webSocketService;
+    private final TaskEventBus eventBus;
+    private final TaskTimer taskTimer;
+    private final TaskStateJournal taskStateJournal;
+    private final DependencyIndex dependencyIndex;
+    private final LeaseManager leaseManager;
+    private final TaskHistoryLog taskHistoryLog;
+    private final TaskCache taskCache;
+    private final CheckpointStore checkpointStore;
+    private final UserQuotas userQuotas;
+    private final DeadlineTracker deadlineTracker;
+    private final LifecycleMetrics lifecycleMetrics;
     
-    private final ConcurrentHashMap<Long, Thread> runningTasks = new ConcurrentHashMap<>();
+    // Runs handed to the launcher, from submission until they finish
+    private final ConcurrentHashMap<Long, Run> runs = new ConcurrentHashMap<>();
+
+    @Value("${tasks.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @Value("${task.execution.simulated-step-ms:1000}")
+    private long simulatedStepMs;
 
     @Transactional
     public Task createTask(Task task) {
         validateTask(task);
+        admissionController.admitSubmission(1);
         task.setStatus(Task.TaskStatus.PENDING);
         task.setScheduledTime(LocalDateTime.now());
         Task savedTask = taskRepository.save(task);
-        webSocketService.notifyTaskUpdate(savedTask);
+        taskCache.put(savedTask);
+        registerDependency(savedTask, new HashMap<>());
+        taskTimer.schedule(savedTask.getId(), savedTask.getScheduledTime());
+        eventBus.publish(TaskEvent.created(savedTask));
         return savedTask;
     }
 
+    /**
+     * Creates tasks in chunks, each validated, admitted and inserted with one JDBC batch.
+     * A chunk that fails validation stops the request, and the response still lists the
+     * tasks earlier chunks created. Clients are notified once for the whole request.
+     */
+    public BulkCreateResponse createTasks(Iterator<Task> tasks) {
+        List<Long> createdIds = new ArrayList<>();
+        List<Task> chunk = new ArrayList<>(bulkChunkSize);
+        try {
+            while (tasks.hasNext()) {
+                chunk.add(tasks.next());
+                if (chunk.size() == bulkChunkSize) {
+                    createdIds.addAll(createChunk(chunk));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                createdIds.addAll(createChunk(chunk));
+            }
+            return BulkCreateResponse.completed(createdIds);
+        } catch (AdmissionRejectedException e) {
+            return BulkCreateResponse.throttled(createdIds, e.getRetryAfterSeconds());
+        } catch (IllegalArgumentException e) {
+            return BulkCreateResponse.rejected(createdIds, e.getMessage());
+        } finally {
+            if (!createdIds.isEmpty()) {
+                eventBus.publish(TaskEvent.bulkCreated(createdIds));
+            }
+        }
+    }
+
+    private List<Long> createChunk(List<Task> chunk) {
+        chunk.forEach(this::validateTask);
+        admissionController.admitSubmission(chunk.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : chunk) {
+            task.setStatus(Task.TaskStatus.PENDING);
+            task.setScheduledTime(now);
+        }
+
+        List<Long> ids = taskRepository.insertAll(chunk);
+        taskCache.putAll(chunk);
+        Map<Long, Boolean> parentCompleted = new HashMap<>();
+        chunk.forEach(task -> registerDependency(task, parentCompleted));
+        taskTimer.scheduleAll(ids, now);
+        return ids;
+    }
+
+    // Only called for tasks this instance has claimed, and the claim already required their dependency to be complete
     @Transactional
     public void executeTask(Task task) {
-        if (!canExecuteTask(task)) {
-            throw new IllegalStateException("Task cannot be executed at this time");
+        admissionController.acquireSlot();
+        // Held from here, so the lease is renewed while the task waits in the executor queue too
+        leaseManager.hold(task.getId());
+        Run run = new Run();
+        runs.put(task.getId(), run);
+        try {
+            launch(task, run);
+        } catch (RuntimeException e) {
+            runs.remove(task.getId(), run);
+            admissionController.releaseSlot();
+            throw e;
         }
+    }
 
-        taskExecutor.execute(() -> {
+    private void launch(Task task, Run run) {
+        taskLauncher.launch(() -> {
             Thread currentThread = Thread.currentThread();
-            runningTasks.put(task.getId(), currentThread);
+            run.thread = currentThread;
+            // Lost its lease while waiting in the executor queue
+            if (run.abandoned) {
+                currentThread.interrupt();
+            }
+            boolean permitAcquired = false;
             
             try {
-                task.setStatus(Task.TaskStatus.RUNNING);
-                taskRepository.save(task);
-                webSocketService.notifyTaskUpdate(task);
+                taskLauncher.acquirePermit();
+                permitAcquired = true;
+                long startedAt = System.nanoTime();
+                lifecycleMetrics.started(task.getId());
+                metricsService.recordTaskStarted(task);
+
+                // Worker-thread events are published by the journal once the transition is written
+                TaskEvent started = transition(task, Task.TaskStatus.RUNNING);
+                taskStateJournal.record(task, started, TaskEvent.updated(task));
                 
                 // Simulate task execution
                 processTask(task);
+                lifecycleMetrics.completed(task.getId());
                 
-                task.setStatus(Task.TaskStatus.COMPLETED);
+                TaskEvent completed = transition(task, Task.TaskStatus.COMPLETED);
                 task.setCompletedTime(LocalDateTime.now());
-                taskRepository.save(task);
+                if (dependencyIndex.hasDependents(task.getId())) {
+                    // Children are claimed against the database, so their parent's completion must be visible now
+                    taskStateJournal.recordAndFlush(task, completed, TaskEvent.updated(task));
+                } else {
+                    taskStateJournal.record(task, completed, TaskEvent.updated(task));
+                }
+                dependencyIndex.onCompleted(task.getId());
+                checkpointStore.complete(task.getId());
                 
-                metricsService.recordTaskCompletion(task);
-                webSocketService.notifyTaskUpdate(task);
+                deadlineTracker.recordCompletion(task, System.nanoTime() - startedAt);
             } catch (InterruptedException e) {
-                handleTaskInterruption(task);
+                lifecycleMetrics.discard(task.getId());
+                if (run.abandoned) {
+                    log.info("Stopped task {} after losing its lease", task.getId());
+                } else {
+                    handleTaskInterruption(task);
+                }
             } catch (Exception e) {
+                lifecycleMetrics.discard(task.getId());
                 handleTaskFailure(task, e);
             } finally {
-                runningTasks.remove(task.getId());
+                if (permitAcquired) {
+                    metricsService.recordTaskStopped(task);
+                    taskLauncher.releasePermit();
+                }
+                runs.remove(task.getId(), run);
+                leaseManager.release(task.getId());
+                // Before onRunFinished, which dispatches again and should see the user's freed slot
+                userQuotas.onRunFinished(task.getId());
+                admissionController.onRunFinished();
             }
         });
     }
@@ -72,7 +208,10 @@ public class TaskService {
     @Transactional
     public Task updateTaskStatus(Long taskId, Task.TaskStatus newStatus) {
         Task task = taskRepository.findById(taskId)
+            .map(taskStateJournal::apply)
             .orElseThrow(() -> new IllegalArgumentException("Task not found"));
+        // The managed entity now carries any buffered state and is written at commit instead
+        taskStateJournal.discard(taskId);
             
         if (newStatus == Task.TaskStatus.PAUSED) {
             pauseTask(task);
@@ -86,71 +225,164 @@ public class TaskService {
     }
 
     private void processTask(Task task) throws InterruptedException {
-        // Simulate work with periodic interruption checks
+        // Simulate work with periodic interruption checks, resuming after the last checkpointed step
         int totalSteps = 10;
-        for (int i = 0; i < totalSteps; i++) {
+        int firstStep = checkpointStore.latest(task)
+            .map(checkpoint -> ByteBuffer.wrap(checkpoint.state()).getInt())
+            .orElse(0);
+        if (firstStep > 0) {
+            eventBus.publish(TaskEvent.progress(task.getId(), firstStep * 100 / totalSteps));
+        }
+        for (int i = firstStep; i < totalSteps; i++) {
             if (Thread.interrupted()) {
                 throw new InterruptedException();
             }
             // Simulated work
-            Thread.sleep(1000);
+            Thread.sleep(simulatedStepMs);
             
             // Update progress
-            webSocketService.notifyTaskProgress(task.getId(), (i + 1) * 100 / totalSteps);
+            int progress = (i + 1) * 100 / totalSteps;
+            checkpointStore.checkpoint(task.getId(), progress, ByteBuffer.allocate(Integer.BYTES).putInt(i + 1).array());
+            eventBus.publish(TaskEvent.progress(task.getId(), progress));
         }
     }
 
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    public TaskPage getTasks(TaskFilter filter, String cursor, int limit) {
+        TaskCursor after = cursor != null ? TaskCursor.decode(cursor) : null;
+        List<TaskSummary> tasks = taskRepository.findSummaries(filter, after, limit).stream()
+            .map(taskStateJournal::apply)
+            .toList();
+        String nextCursor = tasks.size() == limit ? TaskCursor.after(tasks.get(tasks.size() - 1)).encode() : null;
+        return new TaskPage(tasks, nextCursor);
+    }
+
+    public void streamTasks(TaskFilter filter, Consumer<TaskSummary> consumer) {
+        taskRepository.streamSummaries(filter, summary -> consumer.accept(taskStateJournal.apply(summary)));
     }
 
     private void pauseTask(Task task) {
-        Thread taskThread = runningTasks.get(task.getId());
-        if (taskThread != null) {
-            taskThread.interrupt();
-        }
-        task.setStatus(Task.TaskStatus.PAUSED);
+        interrupt(task.getId());
+        eventBus.publish(transition(task, Task.TaskStatus.PAUSED));
         taskRepository.save(task);
-        webSocketService.notifyTaskUpdate(task);
+        taskCache.invalidate(task.getId());
+        eventBus.publish(TaskEvent.updated(task));
     }
 
+    // Re-armed rather than run here, so the resumed task is claimed like any other due task and runs once
     private void resumeTask(Task task) {
         if (task.getStatus() == Task.TaskStatus.PAUSED) {
-            task.setStatus(Task.TaskStatus.PENDING);
+            eventBus.publish(transition(task, Task.TaskStatus.PENDING));
             taskRepository.save(task);
-            executeTask(task);
+            taskCache.invalidate(task.getId());
+            taskTimer.schedule(task.getId(), LocalDateTime.now());
+            eventBus.publish(TaskEvent.updated(task));
         }
     }
 
     private void cancelTask(Task task) {
-        Thread taskThread = runningTasks.get(task.getId());
-        if (taskThread != null) {
-            taskThread.interrupt();
-        }
-        task.setStatus(Task.TaskStatus.CANCELLED);
+        taskTimer.cancel(task.getId());
+        dependencyIndex.remove(task.getId());
+        interrupt(task.getId());
+        eventBus.publish(transition(task, Task.TaskStatus.CANCELLED));
         taskRepository.save(task);
-        webSocketService.notifyTaskUpdate(task);
+        taskCache.invalidate(task.getId());
+        eventBus.publish(TaskEvent.updated(task));
+        dependencyIndex.onTerminated(task.getId());
     }
 
+    // Fails claimed tasks taken off the ready queue because they can no longer finish by their deadline
+    public void shedTasks(List<Task> tasks) {
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        leaseManager.releaseAll(ids);
+        Set<Long> shed = new HashSet<>(taskRepository.shedTasks(ids, leaseManager.getInstanceId()));
+        if (shed.isEmpty()) {
+            return;
+        }
+        taskHistoryLog.recordAll(List.copyOf(shed), Task.TaskStatus.RUNNING, Task.TaskStatus.FAILED);
+        metricsService.recordTaskFailures(shed.size());
+        for (Task task : tasks) {
+            if (!shed.contains(task.getId())) {
+                continue;
+            }
+            taskCache.invalidate(task.getId());
+            deadlineTracker.recordShed(task);
+            task.setStatus(Task.TaskStatus.FAILED);
+            eventBus.publish(TaskEvent.updated(task));
+            eventBus.publish(TaskEvent.error(task.getId(), "Deadline cannot be met"));
+        }
+        shed.forEach(dependencyIndex::onTerminated);
+    }
+
+    // Fails waiting tasks whose parent failed or was cancelled; they could never be claimed
+    public void failUnreachable(List<Long> taskIds) {
+        taskIds.forEach(taskTimer::cancel);
+        List<Long> failed = taskRepository.failPending(taskIds);
+        if (failed.isEmpty()) {
+            return;
+        }
+        taskHistoryLog.recordAll(failed, Task.TaskStatus.PENDING, Task.TaskStatus.FAILED);
+        metricsService.recordTaskFailures(failed.size());
+        for (Task task : taskRepository.findAllById(failed)) {
+            taskCache.invalidate(task.getId());
+            eventBus.publish(TaskEvent.updated(task));
+            eventBus.publish(TaskEvent.error(task.getId(), "Dependency did not complete"));
+        }
+    }
+
+    /**
+     * Reached only for runs interrupted by pauseTask or cancelTask, which already saved the
+     * PAUSED or CANCELLED row. The journal only writes rows still RUNNING, so recording
+     * PAUSED here would always be fenced and log a spurious warning; nothing is recorded.
+     */
     private void handleTaskInterruption(Task task) {
-        task.setStatus(Task.TaskStatus.PAUSED);
-        taskRepository.save(task);
-        webSocketService.notifyTaskUpdate(task);
+        // Persist the last checkpoint now so a resume on any instance continues from it
+        checkpointStore.flush();
     }
 
     private void handleTaskFailure(Task task, Exception e) {
-        task.setStatus(Task.TaskStatus.FAILED);
-        taskRepository.save(task);
-        metricsService.recordTaskFailure(task);
-        webSocketService.notifyTaskUpdate(task);
-        webSocketService.notifyTaskError(task.getId(), e.getMessage());
+        TaskEvent failed = transition(task, Task.TaskStatus.FAILED);
+        taskStateJournal.record(task, failed, TaskEvent.updated(task), TaskEvent.error(task.getId(), e.getMessage()));
+        dependencyIndex.onTerminated(task.getId());
     }
 
-    private boolean canExecuteTask(Task task) {
-        if (task.getDependentTask() != null) {
-            return task.getDependentTask().getStatus() == Task.TaskStatus.COMPLETED;
+    /**
+     * Stops runs whose lease was lost to another instance. They record no further
+     * transition, since the row now belongs to the new owner.
+     */
+    public void abandonTasks(List<Long> taskIds) {
+        for (Long taskId : taskIds) {
+            Run run = runs.get(taskId);
+            if (run != null) {
+                run.abandoned = true;
+                interrupt(taskId);
+            }
         }
-        return true;
+    }
+
+    private void interrupt(Long taskId) {
+        Run run = runs.get(taskId);
+        Thread thread = run != null ? run.thread : null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // History and the completed/failed counters follow from the returned STATUS_CHANGED event, once published
+    private TaskEvent transition(Task task, Task.TaskStatus status) {
+        TaskEvent event = TaskEvent.statusChanged(task, task.getStatus(), status);
+        task.setStatus(status);
+        return event;
+    }
+
+    private void registerDependency(Task task, Map<Long, Boolean> parentCompleted) {
+        if (task.getDependentTask() == null) {
+            return;
+        }
+        Long parentId = task.getDependentTask().getId();
+        boolean completed = parentCompleted.computeIfAbsent(parentId, id -> taskRepository.findStatusById(id)
+            .map(status -> status == Task.TaskStatus.COMPLETED)
+            .orElse(false));
+        dependencyIndex.register(task.getId(), parentId, completed);
     }
 
     private void validateTask(Task task) {
@@ -160,5 +392,14 @@ public class TaskService {
         if (task.getPriority() == null) {
             throw new IllegalArgumentException("Task priority is required");
         }
+        if (task.getDeadline() != null && task.getDeadline().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Task deadline has already passed");
+        }
+    }
+
+    private static final class Run {
+        // Set once the run has started on a launcher thread
+        volatile Thread thread;
+        volatile boolean abandoned;
     }
 }
@@ -0,0 +1,158 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.dto.TaskSummary;
+import com.taskscheduler.events.TaskEvent;
+import com.taskscheduler.events.TaskEventBus;
+import com.taskscheduler.metrics.LifecycleMetrics;
+import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.repository.TaskStateUpdate;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind journal for task state transitions made on worker threads. Transitions
+ * for the same task coalesce to the latest one and are flushed as one batched UPDATE on
+ * a short interval, when the buffer fills, and on shutdown. Reads on this node see
+ * buffered state through {@link #apply(Task)}.
+ *
+ * Worker threads run outside any transaction, so the events describing a transition are
+ * recorded with it and published only once its write has committed, in the order they
+ * were recorded. Events of a transition the database rejected are dropped with it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskStateJournal {
+    private final TaskRepository taskRepository;
+    private final LifecycleMetrics lifecycleMetrics;
+    private final LeaseManager leaseManager;
+    private final TaskEventBus eventBus;
+
+    @Value("${tasks.journal.max-pending:1000}")
+    private int maxPending;
+
+    private final ConcurrentHashMap<Long, Entry> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public void record(Task task, TaskEvent... events) {
+        buffer(task, events);
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+    }
+
+    // For transitions other nodes or queries must see at once, e.g. a parent whose children wait on it
+    public void recordAndFlush(Task task, TaskEvent... events) {
+        buffer(task, events);
+        flush();
+    }
+
+    /**
+     * Drops any buffered transition, and its unpublished events, before a synchronous save
+     * of the same task that replaces that state. Holding the flush lock guarantees no stale
+     * write for it is still in flight when this returns.
+     */
+    public void discard(Long taskId) {
+        flushLock.lock();
+        try {
+            pending.remove(taskId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public Task apply(Task task) {
+        Entry entry = pending.get(task.getId());
+        if (entry != null) {
+            entry.update().applyTo(task);
+        }
+        return task;
+    }
+
+    public TaskSummary apply(TaskSummary summary) {
+        Entry entry = pending.get(summary.id());
+        if (entry == null) {
+            return summary;
+        }
+        TaskStateUpdate update = entry.update();
+        return summary.withState(update.status(), update.completedTime(), update.updatedAt());
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.journal.flush-interval-ms:200}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            // Entries stay visible to apply() until their write has committed
+            List<Entry> entries = new ArrayList<>(pending.values());
+            List<TaskStateUpdate> batch = entries.stream().map(Entry::update).toList();
+            Set<Long> fenced;
+            try {
+                fenced = new HashSet<>(taskRepository.updateStates(batch, leaseManager.getInstanceId()));
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {} task state transitions", batch.size(), e);
+                return;
+            }
+            // Keep any transition that superseded one we just wrote; it carries these events and publishes them when written
+            List<TaskEvent> written = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (pending.remove(entry.update().id(), entry) && !fenced.contains(entry.update().id())) {
+                    written.addAll(entry.events());
+                }
+            }
+            // Under the flush lock, so a later flush cannot publish a task's next events first
+            written.forEach(eventBus::publish);
+            if (!fenced.isEmpty()) {
+                // Paused, cancelled or taken over by another instance since this node claimed them
+                log.warn("Dropped state transitions and events for {} tasks no longer running under this instance", fenced.size());
+                fenced.forEach(lifecycleMetrics::discard);
+            }
+            lifecycleMetrics.persisted(batch.stream()
+                .filter(update -> update.status() == Task.TaskStatus.COMPLETED && !fenced.contains(update.id()))
+                .map(TaskStateUpdate::id)
+                .toList());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void buffer(Task task, TaskEvent[] events) {
+        pending.merge(task.getId(), new Entry(TaskStateUpdate.of(task), List.of(events)), Entry::followedBy);
+    }
+
+    // The latest transition of a task plus the events of every transition it coalesced, oldest first
+    private record Entry(TaskStateUpdate update, List<TaskEvent> events) {
+        Entry followedBy(Entry next) {
+            if (events.isEmpty()) {
+                return next;
+            }
+            List<TaskEvent> all = new ArrayList<>(events.size() + next.events.size());
+            all.addAll(events);
+            all.addAll(next.events);
+            return new Entry(next.update, all);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.cache.ReadThroughCache;
+import com.taskscheduler.repository.UserRepository;
+import com.taskscheduler.scheduling.ReadyQueue;
+import com.taskscheduler.scheduling.UserQuota;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces per-user quotas for the ready queue: a cap on concurrently running
+ * tasks and a token bucket on task starts. A task holds its user's share from the moment
+ * it is polled until its run finishes, or until dispatch is cancelled.
+ *
+ * Quotas are cached per user and re-read when the user's tasks are next queued after the
+ * cache entry expires or the user's quota is updated.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserQuotas implements ReadyQueue.QuotaGate {
+    private final UserRepository userRepository;
+
+    @Value("${scheduler.fair-share.default-weight:1}")
+    private int defaultWeight;
+
+    @Value("${cache.users.max-size:1000}")
+    private int maxSize;
+
+    @Value("${cache.users.ttl-ms:60000}")
+    private long ttlMs;
+
+    private ReadThroughCache<Long, UserQuota> quotas;
+    private final Map<Long, UserState> states = new ConcurrentHashMap<>();
+    // Dispatched task id -> user id, so only runs that went through the queue give a share back
+    private final Map<Long, Long> dispatched = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void createCache() {
+        quotas = new ReadThroughCache<>("users.quota", maxSize, ttlMs);
+    }
+
+    @Override
+    public int weight(long userId) {
+        UserQuota quota = userId == ReadyQueue.UNASSIGNED
+            ? UserQuota.defaults(defaultWeight)
+            : quotas.get(userId, id -> userRepository.findById(id)
+                .map(user -> UserQuota.of(user, defaultWeight))
+                .orElse(UserQuota.defaults(defaultWeight)));
+        states.computeIfAbsent(userId, id -> new UserState(quota)).quota = quota;
+        return quota.weight();
+    }
+
+    @Override
+    public boolean tryAcquire(long userId, Long taskId) {
+        UserState state = states.computeIfAbsent(userId, id -> new UserState(UserQuota.defaults(defaultWeight)));
+        if (!state.tryAcquire(System.nanoTime())) {
+            return false;
+        }
+        dispatched.put(taskId, userId);
+        return true;
+    }
+
+    // The polled task was not handed to the executor after all: free its slot and return its token
+    public void cancelDispatch(Long taskId) {
+        Long userId = dispatched.remove(taskId);
+        if (userId != null) {
+            states.get(userId).release(true);
+        }
+    }
+
+    public void onRunFinished(Long taskId) {
+        Long userId = dispatched.remove(taskId);
+        if (userId != null) {
+            states.get(userId).release(false);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        quotas.invalidateAfterCommit(userId);
+    }
+
+    public List<UserShareStats> stats(List<ReadyQueue.UserQueueStats> queues) {
+        Map<Long, ReadyQueue.UserQueueStats> byUser = queues.stream()
+            .collect(Collectors.toMap(ReadyQueue.UserQueueStats::userId, Function.identity()));
+        List<UserShareStats> stats = new ArrayList<>(states.size());
+        states.forEach((userId, state) -> stats.add(state.stats(userId, byUser.get(userId))));
+        return stats;
+    }
+
+    public record UserShareStats(
+        long userId,
+        int weight,
+        Integer maxConcurrent,
+        Double dispatchRate,
+        int queued,
+        int running,
+        long dispatched,
+        long throttled,
+        long avgWaitMillis,
+        long maxWaitMillis,
+        long oldestWaitMillis
+    ) {
+    }
+
+    private static final class UserState {
+        volatile UserQuota quota;
+        int running;
+        double tokens;
+        long refilledAt;
+        long dispatchedCount;
+        long throttledCount;
+
+        UserState(UserQuota quota) {
+            this.quota = quota;
+            this.tokens = quota.dispatchBurst();
+            this.refilledAt = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            UserQuota current = quota;
+            if (running >= current.maxConcurrent()) {
+                throttledCount++;
+                return false;
+            }
+            if (current.rateLimited()) {
+                tokens = Math.min(current.dispatchBurst(), tokens + (now - refilledAt) / 1e9 * current.dispatchRate());
+                refilledAt = now;
+                if (tokens < 1) {
+                    throttledCount++;
+                    return false;
+                }
+                tokens--;
+            }
+            running++;
+            dispatchedCount++;
+            return true;
+        }
+
+        synchronized void release(boolean refund) {
+            running--;
+            if (refund) {
+                dispatchedCount--;
+                if (quota.rateLimited()) {
+                    tokens = Math.min(quota.dispatchBurst(), tokens + 1);
+                }
+            }
+        }
+
+        synchronized UserShareStats stats(long userId, ReadyQueue.UserQueueStats queue) {
+            UserQuota current = quota;
+            return new UserShareStats(
+                userId,
+                current.weight(),
+                current.maxConcurrent() == UserQuota.UNLIMITED ? null : current.maxConcurrent(),
+                current.rateLimited() ? current.dispatchRate() : null,
+                queue != null ? queue.depth() : 0,
+                running,
+                dispatchedCount,
+                throttledCount,
+                queue != null ? queue.avgWaitMillis() : 0,
+                queue != null ? queue.maxWaitMillis() : 0,
+                queue != null ? queue.oldestWaitMillis() : 0
+            );
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.cache.UserLookupCache;
 import com.taskscheduler.model.User;
 import com.taskscheduler.model.Task;
 import com.taskscheduler.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +17,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final UserQuotas userQuotas;
 
     @Transactional(readOnly = true)
     public List<User> getAllUsers() {
@@ -35,19 +39,22 @@ public class UserService {
     public User createUser(User user) {
         validateNewUser(user);
         user.setCreatedAt(LocalDateTime.now());
-        return userRepository.save(user);
+        User savedUser = saveUnique(user);
+        userLookupCache.invalidate(savedUser);
+        return savedUser;
     }
 
     @Transactional
     public User updateUser(Long userId, User updatedUser) {
         User existingUser = userRepository.findById(userId)
             .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+        userLookupCache.invalidate(existingUser);
 
         if (updatedUser.getUsername() != null && !updatedUser.getUsername().isEmpty()) {
             // Check if new username is already taken by another user
-            userRepository.findByUsername(updatedUser.getUsername())
-                .filter(user -> !user.getId().equals(userId))
-                .ifPresent(user -> {
+            userLookupCache.findIdByUsername(updatedUser.getUsername())
+                .filter(id -> !id.equals(userId))
+                .ifPresent(id -> {
                     throw new IllegalArgumentException("Username already exists");
                 });
             existingUser.setUsername(updatedUser.getUsername());
@@ -55,15 +62,32 @@ public class UserService {
 
         if (updatedUser.getEmail() != null && !updatedUser.getEmail().isEmpty()) {
             // Check if new email is already taken by another user
-            userRepository.findByEmail(updatedUser.getEmail())
-                .filter(user -> !user.getId().equals(userId))
-                .ifPresent(user -> {
+            userLookupCache.findIdByEmail(updatedUser.getEmail())
+                .filter(id -> !id.equals(userId))
+                .ifPresent(id -> {
                     throw new IllegalArgumentException("Email already exists");
                 });
             existingUser.setEmail(updatedUser.getEmail());
         }
 
-        return userRepository.save(existingUser);
+        User savedUser = saveUnique(existingUser);
+        userLookupCache.invalidate(savedUser);
+        return savedUser;
+    }
+
+    // Replaces the whole quota; null fields fall back to the scheduler default or no limit
+    @Transactional
+    public User updateQuota(Long userId, User quota) {
+        User existingUser = userRepository.findById(userId)
+            .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
+        validateQuota(quota);
+        existingUser.setShareWeight(quota.getShareWeight());
+        existingUser.setMaxConcurrentTasks(quota.getMaxConcurrentTasks());
+        existingUser.setDispatchRate(quota.getDispatchRate());
+        existingUser.setDispatchBurst(quota.getDispatchBurst());
+        User savedUser = userRepository.save(existingUser);
+        userQuotas.invalidate(userId);
+        return savedUser;
     }
 
     @Transactional
@@ -77,6 +101,7 @@ public class UserService {
         }
         
         userRepository.delete(user);
+        userLookupCache.invalidate(user);
     }
 
     @Transactional(readOnly = true)
@@ -86,6 +111,30 @@ public class UserService {
         return List.copyOf(user.getAssignedTasks());
     }
 
+    // Flushed so a username or email taken since validation fails here, as a validation error
+    private User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Username or email already exists");
+        }
+    }
+
+    private void validateQuota(User quota) {
+        if (quota.getShareWeight() != null && quota.getShareWeight() <= 0) {
+            throw new IllegalArgumentException("Share weight must be positive");
+        }
+        if (quota.getMaxConcurrentTasks() != null && quota.getMaxConcurrentTasks() <= 0) {
+            throw new IllegalArgumentException("Max concurrent tasks must be positive");
+        }
+        if (quota.getDispatchRate() != null && quota.getDispatchRate() <= 0) {
+            throw new IllegalArgumentException("Dispatch rate must be positive");
+        }
+        if (quota.getDispatchBurst() != null && quota.getDispatchBurst() <= 0) {
+            throw new IllegalArgumentException("Dispatch burst must be positive");
+        }
+    }
+
     private void validateNewUser(User user) {
         if (user.getUsername() == null || user.getUsername().trim().isEmpty()) {
             throw new IllegalArgumentException("Username is required");
@@ -101,12 +150,12 @@ public class UserService {
         }
         
         // Check if username is already taken
-        if (userRepository.findByUsername(user.getUsername()).isPresent()) {
+        if (userLookupCache.findIdByUsername(user.getUsername()).isPresent()) {
             throw new IllegalArgumentException("Username already exists");
         }
         
         // Check if email is already taken
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+        if (userLookupCache.findIdByEmail(user.getEmail()).isPresent()) {
             throw new IllegalArgumentException("Email already exists");
         }
     }
@@ -0,0 +1,120 @@
+package com.taskscheduler.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishing stage in front of {@link SimpMessagingTemplate}. Only the latest payload per
+ * key is kept between frames; each frame sends at most one message per topic and every
+ * topic is held to a message-rate ceiling, with throttled payloads conflated into a later frame.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConflatingPublisher {
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${websocket.publish.max-messages-per-second:4}")
+    private double maxMessagesPerSecond;
+
+    private final ConcurrentHashMap<String, TopicBuffer> topics = new ConcurrentHashMap<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong conflated = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    // Keeps only the newest payload for the topic; the frame carries that single payload
+    public void publishLatest(String destination, Object payload) {
+        buffer(destination, false, destination, payload);
+    }
+
+    // Keeps the newest payload per key; the frame carries a list of all pending payloads
+    public void publishBatched(String destination, Object key, Object payload) {
+        buffer(destination, true, key, payload);
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.publish.interval-ms:250}")
+    public void flush() {
+        long now = System.nanoTime();
+        for (String destination : topics.keySet()) {
+            Frame[] frame = new Frame[1];
+            topics.computeIfPresent(destination, (topic, buffer) -> {
+                frame[0] = buffer.drain(now, maxMessagesPerSecond);
+                return buffer.isIdle(maxMessagesPerSecond) ? null : buffer;
+            });
+
+            if (frame[0] == null) {
+                continue;
+            }
+            if (frame[0].throttled) {
+                throttled.incrementAndGet();
+                continue;
+            }
+            messagingTemplate.convertAndSend(destination, frame[0].payload);
+            published.incrementAndGet();
+        }
+    }
+
+    public PublisherStats stats() {
+        return new PublisherStats(published.get(), conflated.get(), throttled.get(), topics.size());
+    }
+
+    private void buffer(String destination, boolean batched, Object key, Object payload) {
+        topics.compute(destination, (topic, buffer) -> {
+            if (buffer == null) {
+                buffer = new TopicBuffer(batched, maxMessagesPerSecond);
+            }
+            if (buffer.pending.put(key, payload) != null) {
+                conflated.incrementAndGet();
+            }
+            return buffer;
+        });
+    }
+
+    public record PublisherStats(long published, long conflated, long throttledFrames, int activeTopics) {
+    }
+
+    private record Frame(Object payload, boolean throttled) {
+    }
+
+    // Only touched inside ConcurrentHashMap.compute, which serializes access per topic
+    private static final class TopicBuffer {
+        final boolean batched;
+        final Map<Object, Object> pending = new LinkedHashMap<>();
+        double tokens;
+        long lastRefillNanos = System.nanoTime();
+
+        TopicBuffer(boolean batched, double maxMessagesPerSecond) {
+            this.batched = batched;
+            this.tokens = maxMessagesPerSecond;
+        }
+
+        Frame drain(long now, double maxMessagesPerSecond) {
+            tokens = Math.min(maxMessagesPerSecond, tokens + (now - lastRefillNanos) / 1e9 * maxMessagesPerSecond);
+            lastRefillNanos = now;
+            if (pending.isEmpty()) {
+                return null;
+            }
+            if (tokens < 1) {
+                return new Frame(null, true);
+            }
+            tokens -= 1;
+
+            Object payload = batched ? new ArrayList<>(pending.values()) : pending.values().iterator().next();
+            pending.clear();
+            return new Frame(payload, false);
+        }
+
+        boolean isIdle(double maxMessagesPerSecond) {
+            return pending.isEmpty() && tokens >= maxMessagesPerSecond;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import com.taskscheduler.model.*;
 import lombok.RequiredArgsConstructor;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -11,13 +12,22 @@ import java.util.HashMap;
 @RequiredArgsConstructor
 public class WebSocketService {
     private final SimpMessagingTemplate messagingTemplate;
+    private final ConflatingPublisher conflatingPublisher;
     
+    // Frames on /topic/tasks carry a list with the latest state of each task updated since the last frame
     public void notifyTaskUpdate(Task task) {
-        messagingTemplate.convertAndSend("/topic/tasks", task);
+        conflatingPublisher.publishBatched("/topic/tasks", task.getId(), task);
     }
     
-    public void notifyTaskProgress(Long taskId, int progress) {
+    public void notifyTasksCreated(List<Long> taskIds) {
         messagingTemplate.convertAndSend(
+            "/topic/tasks/bulk",
+            Map.of("count", taskIds.size(), "taskIds", taskIds)
+        );
+    }
+    
+    public void notifyTaskProgress(Long taskId, int progress) {
+        conflatingPublisher.publishLatest(
             "/topic/tasks/" + taskId + "/progress",
             Map.of("taskId", taskId, "progress", progress)
         );
@@ -29,4 +39,4 @@ public class WebSocketService {
             Map.of("taskId", taskId, "error", error)
         );
     }
-}
\ No newline at end of file
+}
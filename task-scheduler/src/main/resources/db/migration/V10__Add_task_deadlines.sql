@@ -0,0 +1,2 @@
+-- Optional completion deadline used by EDF dispatch, load shedding and SLA accounting
+ALTER TABLE tasks ADD COLUMN deadline TIMESTAMP;
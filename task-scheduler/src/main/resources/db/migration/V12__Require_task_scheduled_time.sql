@@ -0,0 +1,3 @@
+-- Keyset pages of the task listing order by (scheduled_time, id), which a NULL scheduled_time would drop out of
+UPDATE tasks SET scheduled_time = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE scheduled_time IS NULL;
+ALTER TABLE tasks ALTER COLUMN scheduled_time SET NOT NULL;
@@ -0,0 +1,5 @@
+ALTER TABLE tasks ADD COLUMN owner_id VARCHAR(64);
+ALTER TABLE tasks ADD COLUMN lease_expires_at TIMESTAMP;
+
+CREATE INDEX idx_tasks_pending_scheduled_time ON tasks(scheduled_time) WHERE status = 'PENDING';
+CREATE INDEX idx_tasks_running_lease ON tasks(lease_expires_at) WHERE status = 'RUNNING';
@@ -0,0 +1,2 @@
+-- Matches Task.ID_ALLOCATION_SIZE: each nextval reserves a block of 50 ids
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
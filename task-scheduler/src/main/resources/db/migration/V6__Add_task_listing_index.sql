@@ -0,0 +1 @@
+CREATE INDEX idx_tasks_scheduled_time_id ON tasks(scheduled_time, id);
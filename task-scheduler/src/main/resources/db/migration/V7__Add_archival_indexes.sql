@@ -0,0 +1,3 @@
+CREATE INDEX idx_tasks_terminal_finished ON tasks((COALESCE(completed_time, updated_at)))
+    WHERE status IN ('COMPLETED', 'FAILED', 'CANCELLED', 'ARCHIVED');
+CREATE INDEX idx_tasks_dependent_task_id ON tasks(dependent_task_id);
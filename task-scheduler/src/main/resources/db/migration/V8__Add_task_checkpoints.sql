@@ -0,0 +1,3 @@
+ALTER TABLE tasks ADD COLUMN progress INTEGER;
+ALTER TABLE tasks ADD COLUMN checkpoint_data BYTEA;
+ALTER TABLE tasks ADD COLUMN checkpoint_at TIMESTAMP;
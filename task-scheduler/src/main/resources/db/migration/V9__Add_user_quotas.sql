@@ -0,0 +1,5 @@
+-- Fair-share settings per user; NULL means the scheduler default (weight) or no limit
+ALTER TABLE users ADD COLUMN share_weight INTEGER;
+ALTER TABLE users ADD COLUMN max_concurrent_tasks INTEGER;
+ALTER TABLE users ADD COLUMN dispatch_rate DOUBLE PRECISION;
+ALTER TABLE users ADD COLUMN dispatch_burst INTEGER;
@@ -0,0 +1,3 @@
+-- Run once when switching tasks.history.mode to APPLICATION, before starting instances in that mode.
+-- Not a Flyway migration: TRIGGER mode, the default, relies on this trigger.
+DROP TRIGGER IF EXISTS log_task_status_changes ON tasks;
@@ -0,0 +1,8 @@
+-- Run when switching tasks.history.mode back to TRIGGER; recreates the V3 status trigger.
+DROP TRIGGER IF EXISTS log_task_status_changes ON tasks;
+
+CREATE TRIGGER log_task_status_changes
+    AFTER UPDATE ON tasks
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status)
+    EXECUTE FUNCTION log_task_history();
@@ -0,0 +1,145 @@
+package com.taskscheduler.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskscheduler.cache.TaskCache;
+import com.taskscheduler.events.TaskEvent;
+import com.taskscheduler.events.TaskEventBus;
+import com.taskscheduler.exception.AdmissionRejectedException;
+import com.taskscheduler.model.Task;
+import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.scheduling.TaskTimer;
+import com.taskscheduler.service.AdmissionController;
+import com.taskscheduler.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code POST /api/tasks/bulk} through the real {@link TaskService} chunking, with its
+ * collaborators mocked; those the bulk path never reaches are left null. Chunks of two
+ * make partial failures easy to place.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TaskControllerBulkTest {
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private AdmissionController admissionController;
+    @Mock
+    private TaskEventBus eventBus;
+    @Mock
+    private TaskTimer taskTimer;
+    @Mock
+    private TaskCache taskCache;
+
+    @InjectMocks
+    private TaskService taskService;
+
+    private MockMvc mockMvc;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(taskService, "bulkChunkSize", 2);
+        when(taskRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = new ArrayList<>();
+            for (Task task : invocation.<List<Task>>getArgument(0)) {
+                task.setId(nextId.getAndIncrement());
+                ids.add(task.getId());
+            }
+            return ids;
+        });
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(taskService, new ObjectMapper())).build();
+    }
+
+    @Test
+    void returnsTheIdsOfEveryCreatedTask() throws Exception {
+        mockMvc.perform(post("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON)
+                .content(tasks("a", "b", "c", "d", "e")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(5))
+            .andExpect(jsonPath("$.taskIds").value(contains(1, 2, 3, 4, 5)))
+            .andExpect(jsonPath("$.error").doesNotExist());
+
+        verify(eventBus).publish(bulkCreated(List.of(1L, 2L, 3L, 4L, 5L)));
+    }
+
+    @Test
+    void reportsTasksCreatedBeforeAnInvalidOne() throws Exception {
+        // The second chunk holds the nameless task, so only the first chunk is created
+        mockMvc.perform(post("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON)
+                .content(tasks("a", "b", "c", "", "e")))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.taskIds").value(contains(1, 2)))
+            .andExpect(jsonPath("$.error").value("Task name is required"));
+
+        verify(eventBus).publish(bulkCreated(List.of(1L, 2L)));
+    }
+
+    @Test
+    void reportsTasksCreatedBeforeAdmissionStopsTheRequest() throws Exception {
+        doNothing().doNothing().doThrow(new AdmissionRejectedException("Queue full", 7))
+            .when(admissionController).admitSubmission(anyInt());
+
+        mockMvc.perform(post("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON)
+                .content(tasks("a", "b", "c", "d", "e")))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string("Retry-After", "7"))
+            .andExpect(jsonPath("$.created").value(4))
+            .andExpect(jsonPath("$.taskIds").value(contains(1, 2, 3, 4)))
+            .andExpect(jsonPath("$.retryAfterSeconds").value(7));
+    }
+
+    @Test
+    void publishesNothingWhenTheFirstChunkIsRejected() throws Exception {
+        mockMvc.perform(post("/api/tasks/bulk").contentType(MediaType.APPLICATION_JSON)
+                .content(tasks("", "b")))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.created").value(0))
+            .andExpect(jsonPath("$.taskIds").isEmpty());
+
+        verify(taskRepository, never()).insertAll(anyList());
+        verify(eventBus, never()).publish(argThat(event -> event.type() == TaskEvent.Type.BULK_CREATED));
+    }
+
+    private static String tasks(String... names) {
+        List<String> json = new ArrayList<>();
+        for (String name : names) {
+            json.add("{\"name\":\"" + name + "\",\"priority\":\"MEDIUM\"}");
+        }
+        return "[" + String.join(",", json) + "]";
+    }
+
+    private static TaskEvent bulkCreated(List<Long> taskIds) {
+        return argThat(event -> event.type() == TaskEvent.Type.BULK_CREATED && event.taskIds().equals(taskIds));
+    }
+}
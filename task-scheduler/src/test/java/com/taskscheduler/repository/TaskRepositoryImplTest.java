@@ -0,0 +1,114 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskRepositoryImplTest {
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TaskRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(jdbcTemplate.getJdbcTemplate()).thenReturn(new JdbcTemplate(mock(DataSource.class)));
+        repository = new TaskRepositoryImpl(jdbcTemplate);
+    }
+
+    @Test
+    void insertAllTakesIdsFromWholeSequenceBlocks() {
+        // Each nextval reserves the 50 ids ending at it
+        stubNextvals(List.of(150L, 200L, 250L));
+        List<Task> tasks = newTasks(120);
+
+        List<Long> ids = repository.insertAll(tasks);
+
+        assertThat(ids).containsExactlyElementsOf(range(101, 220));
+        assertThat(tasks).extracting(Task::getId).containsExactlyElementsOf(ids);
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getCreatedAt()).isNotNull());
+        assertThat(blocksRequested()).containsExactly(3);
+    }
+
+    @Test
+    void insertAllRequestsNoSpareBlockForAnExactMultiple() {
+        stubNextvals(List.of(50L, 100L));
+
+        assertThat(repository.insertAll(newTasks(100))).containsExactlyElementsOf(range(1, 100));
+        assertThat(blocksRequested()).containsExactly(2);
+    }
+
+    @Test
+    void insertAllTakesAnotherBlockWhenAFreshSequenceStartsAtOne() {
+        // The first value of a fresh sequence reserves only itself, as in Hibernate's pooled optimizer
+        stubNextvals(List.of(1L, 51L), List.of(101L));
+
+        assertThat(repository.insertAll(newTasks(60))).containsExactlyElementsOf(range(1, 60));
+        assertThat(blocksRequested()).containsExactly(2, 1);
+    }
+
+    @Test
+    void insertAllWritesEveryTaskInBatches() {
+        stubNextvals(LongStream.rangeClosed(1, 24).map(block -> block * 50).boxed().toList());
+        List<Task> tasks = newTasks(1200);
+
+        repository.insertAll(tasks);
+
+        ArgumentCaptor<SqlParameterSource[]> batches = ArgumentCaptor.forClass(SqlParameterSource[].class);
+        verify(jdbcTemplate, times(3)).batchUpdate(contains("INSERT INTO tasks"), batches.capture());
+        List<Object> insertedIds = new ArrayList<>();
+        batches.getAllValues().forEach(batch -> {
+            for (SqlParameterSource row : batch) {
+                insertedIds.add(row.getValue("id"));
+            }
+        });
+        assertThat(batches.getAllValues()).extracting(batch -> batch.length).containsExactly(500, 500, 200);
+        assertThat(insertedIds).containsExactlyElementsOf(tasks.stream().map(Task::getId).toList());
+    }
+
+    @SafeVarargs
+    private void stubNextvals(List<Long> first, List<Long>... rest) {
+        when(jdbcTemplate.queryForList(contains("nextval"), any(MapSqlParameterSource.class), eq(Long.class)))
+            .thenReturn(first, rest);
+    }
+
+    private List<Integer> blocksRequested() {
+        ArgumentCaptor<MapSqlParameterSource> params = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbcTemplate, atLeastOnce()).queryForList(contains("nextval"), params.capture(), eq(Long.class));
+        return params.getAllValues().stream().map(p -> (Integer) p.getValue("blocks")).toList();
+    }
+
+    private static List<Task> newTasks(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> Task.builder()
+                .name("task-" + i)
+                .priority(Task.TaskPriority.MEDIUM)
+                .status(Task.TaskStatus.PENDING)
+                .build())
+            .toList();
+    }
+
+    private static List<Long> range(long first, long last) {
+        return LongStream.rangeClosed(first, last).boxed().toList();
+    }
+}
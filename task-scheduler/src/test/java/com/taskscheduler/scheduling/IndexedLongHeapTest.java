@@ -0,0 +1,140 @@
+package com.taskscheduler.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedLongHeapTest {
+    // The index starts at 16 slots and holds up to 8 ids before it grows
+    private static final int INITIAL_MASK = 15;
+
+    @Test
+    void pollsInKeyThenTieOrder() {
+        IndexedLongHeap heap = new IndexedLongHeap();
+        heap.offer(1, 20, 0);
+        heap.offer(2, 10, 5);
+        heap.offer(3, 10, 1);
+        heap.offer(4, 30, 0);
+
+        assertThat(drain(heap)).containsExactly(3L, 2L, 1L, 4L);
+        assertThatThrownBy(heap::peek).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void reKeysAnIdAlreadyPresent() {
+        IndexedLongHeap heap = new IndexedLongHeap();
+        for (long id = 1; id <= 6; id++) {
+            heap.offer(id, id * 10, 0);
+        }
+
+        assertThat(heap.offer(6, 5, 0)).isFalse();
+        assertThat(heap.offer(1, 100, 0)).isFalse();
+
+        assertThat(heap.size()).isEqualTo(6);
+        assertThat(drain(heap)).containsExactly(6L, 2L, 3L, 4L, 5L, 1L);
+    }
+
+    @Test
+    void removesAnyId() {
+        IndexedLongHeap heap = new IndexedLongHeap();
+        for (long id = 1; id <= 7; id++) {
+            heap.offer(id, id, 0);
+        }
+
+        assertThat(heap.remove(4)).isTrue();
+        assertThat(heap.remove(1)).isTrue();
+        assertThat(heap.remove(4)).isFalse();
+        assertThat(heap.contains(4)).isFalse();
+
+        assertThat(drain(heap)).containsExactly(2L, 3L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void keepsProbeChainsIntactWhenCollidingIdsAreRemoved() {
+        // Four ids homed on the last slot and three on the first, so their chain wraps around the table
+        List<Long> ids = new ArrayList<>(idsHomedAt(INITIAL_MASK, 4));
+        ids.addAll(idsHomedAt(0, 3));
+
+        for (int removed = 0; removed < ids.size(); removed++) {
+            IndexedLongHeap heap = new IndexedLongHeap();
+            for (int i = 0; i < ids.size(); i++) {
+                heap.offer(ids.get(i), i, 0);
+            }
+
+            assertThat(heap.remove(ids.get(removed))).isTrue();
+
+            for (int i = 0; i < ids.size(); i++) {
+                assertThat(heap.contains(ids.get(i))).as("id %d after removing %d", i, removed).isEqualTo(i != removed);
+            }
+            // Re-keying goes through the index too: move the last remaining id to the front
+            List<Long> expected = new ArrayList<>(ids);
+            expected.remove(removed);
+            Long last = expected.remove(expected.size() - 1);
+            expected.add(0, last);
+            assertThat(heap.offer(last, -1, 0)).isFalse();
+            assertThat(drain(heap)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void matchesAReferenceUnderRandomOperations() {
+        Random random = new Random(7);
+        IndexedLongHeap heap = new IndexedLongHeap();
+        Map<Long, long[]> reference = new HashMap<>();
+        long tie = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            // A small id range keeps re-keys and removals of present ids frequent
+            long id = random.nextInt(200);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    long key = random.nextInt(50);
+                    assertThat(heap.offer(id, key, tie)).isEqualTo(!reference.containsKey(id));
+                    reference.put(id, new long[] {key, tie++});
+                }
+                case 2 -> assertThat(heap.remove(id)).isEqualTo(reference.remove(id) != null);
+                default -> {
+                    if (!reference.isEmpty()) {
+                        long expected = reference.entrySet().stream()
+                            .min((a, b) -> a.getValue()[0] != b.getValue()[0]
+                                ? Long.compare(a.getValue()[0], b.getValue()[0])
+                                : Long.compare(a.getValue()[1], b.getValue()[1]))
+                            .orElseThrow().getKey();
+                        assertThat(heap.poll()).isEqualTo(expected);
+                        reference.remove(expected);
+                    }
+                }
+            }
+            assertThat(heap.size()).isEqualTo(reference.size());
+            assertThat(heap.contains(id)).isEqualTo(reference.containsKey(id));
+        }
+    }
+
+    private static List<Long> drain(IndexedLongHeap heap) {
+        List<Long> ids = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            ids.add(heap.poll());
+        }
+        return ids;
+    }
+
+    // Mirrors IndexedLongHeap's hash to find ids sharing a home slot
+    private static List<Long> idsHomedAt(int slot, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; ids.size() < count; id++) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & INITIAL_MASK) == slot) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,145 @@
+package com.taskscheduler.scheduling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.DelayQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the wheel the way TaskTimer's reaper does, but takes buckets in expiration order
+ * instead of waiting for them, so time is simulated. A tick of 1 ms and 8 buckets make
+ * the levels cover 8, 64 and 512 ms.
+ */
+class TimingWheelTest {
+    private static final int WHEEL_SIZE = 8;
+
+    private DelayQueue<TimerBucket> queue;
+    private TimingWheel wheel;
+    private List<long[]> fired;
+
+    @BeforeEach
+    void setUp() {
+        queue = new DelayQueue<>();
+        wheel = new TimingWheel(1, WHEEL_SIZE, 0, queue);
+        fired = new ArrayList<>();
+    }
+
+    @Test
+    void rejectsEntriesAlreadyDue() {
+        assertThat(wheel.add(new TimerEntry(1, 0))).isFalse();
+        assertThat(wheel.add(new TimerEntry(2, 1))).isTrue();
+    }
+
+    @Test
+    void firesEntriesWithinTheFirstLevelAtTheirTick() {
+        add(1, 5);
+        add(2, 3);
+        add(3, 7);
+
+        runUntil(100);
+
+        assertFired(new long[][] {{2, 3}, {1, 5}, {3, 7}});
+    }
+
+    @Test
+    void cascadesOverflowEntriesDownToTheirExactTick() {
+        add(1, 20);
+        // Held by the overflow wheel in the bucket covering [16, 24)
+        assertThat(queue).extracting(TimerBucket::getExpiration).containsExactly(16L);
+
+        runUntil(100);
+
+        assertFired(new long[][] {{1, 20}});
+    }
+
+    @Test
+    void reusesBucketsAfterTheWheelRollsOver() {
+        add(1, 3);
+        // Lands in the same first-level bucket as id 1 once the clock passes 8
+        add(2, 11);
+        // Two levels up: beyond 64 ms, and beyond 512 ms
+        add(3, 100);
+        add(4, 1000);
+
+        runUntil(2000);
+
+        assertFired(new long[][] {{1, 3}, {2, 11}, {3, 100}, {4, 1000}});
+    }
+
+    @Test
+    void dropsCancelledEntriesInsteadOfFiringThem() {
+        TimerEntry near = add(1, 5);
+        TimerEntry far = add(2, 300);
+        add(3, 6);
+        near.cancel();
+        far.cancel();
+
+        runUntil(1000);
+
+        assertFired(new long[][] {{3, 6}});
+        TimerEntry cancelled = new TimerEntry(4, 50);
+        cancelled.cancel();
+        assertThat(wheel.add(cancelled)).isTrue();
+        assertThat(queue).isEmpty();
+    }
+
+    @Test
+    void firesRandomEntriesInOrderAcrossLevels() {
+        Random random = new Random(42);
+        List<long[]> expected = new ArrayList<>();
+        List<TimerEntry> cancelled = new ArrayList<>();
+        for (int id = 0; id < 500; id++) {
+            long expiration = 1 + random.nextInt(5000);
+            TimerEntry entry = add(id, expiration);
+            if (random.nextInt(5) == 0) {
+                cancelled.add(entry);
+            } else {
+                expected.add(new long[] {id, expiration});
+            }
+        }
+        cancelled.forEach(TimerEntry::cancel);
+
+        runUntil(10_000);
+
+        expected.sort(Comparator.comparingLong(e -> e[1]));
+        assertThat(fired).extracting(e -> e[1]).isSorted();
+        assertThat(fired).extracting(e -> e[1]).containsExactlyElementsOf(
+            expected.stream().map(e -> e[1]).toList());
+        assertThat(fired).extracting(e -> e[0]).containsExactlyInAnyOrderElementsOf(
+            expected.stream().map(e -> e[0]).toList());
+    }
+
+    private TimerEntry add(long taskId, long expirationMs) {
+        TimerEntry entry = new TimerEntry(taskId, expirationMs);
+        assertThat(wheel.add(entry)).isTrue();
+        return entry;
+    }
+
+    // Records each fired entry as (task id, simulated time it fired at)
+    private void runUntil(long endMs) {
+        while (true) {
+            TimerBucket bucket = queue.stream().min(Comparator.comparingLong(TimerBucket::getExpiration)).orElse(null);
+            if (bucket == null || bucket.getExpiration() > endMs) {
+                return;
+            }
+            queue.remove(bucket);
+            long now = bucket.getExpiration();
+            wheel.advanceClock(now);
+            bucket.flush(entry -> {
+                if (!wheel.add(entry)) {
+                    fired.add(new long[] {entry.taskId, now});
+                }
+            });
+        }
+    }
+
+    private void assertFired(long[][] expected) {
+        assertThat(fired).containsExactly(expected);
+    }
+}